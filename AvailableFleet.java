@@ -6,28 +6,366 @@
  *
  */
 
+// imports
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
 public class AvailableFleet {
+    // constants of AvailableFleet Class
+    private static final char EMPTY = '.';
+    private static final int INITIAL_SHIPS = 10;
     // variables of AvailableFleet Class
-    private final char[][] board;
+    private final int index; // position of the fleet in its catalog
+    // bit-packed board of the fleet, never changed after the constructor
+    private final BitBoard ships; // cells occupied by a ship
+    private final BitBoard heads; // first cell of each ship, in row-major order
+    private final BitBoard vertical; // cells of vertical ships
+    private final BitBoard columnHeads; // heads of vertical ships, with rows and columns swapped
+    // ship index of the fleet, ships are numbered by the rank of their head
+    private int[] shipRows;
+    private int[] shipCols;
+    private int[] shipLengths;
+    private char[] shipSymbols;
+    private int shipCount;
+    private int shipCells;
 
     /**
      * Constructor for AvailableFleets
      * Creates a new AvailableFleet with the given board.
+     * The fleet is immutable, so it is shared by every player that chooses it;
+     * the board is not kept, only the bit boards and the ships built from it.
      *
+     * @param index int that represents the position of the fleet in its catalog
      * @param board The board of the fleet
-     * @pre board != null
+     * @pre index >= 0 && board != null && board.length > 0 && board[0].length > 0
+     *      && no cell has an equal neighbour both in its row and in its column
+     */
+    public AvailableFleet(int index, char[][] board) {
+        this.index = index;
+        ships = new BitBoard(board.length, board[0].length);
+        heads = new BitBoard(board.length, board[0].length);
+        vertical = new BitBoard(board.length, board[0].length);
+        columnHeads = new BitBoard(board[0].length, board.length);
+        shipRows = new int[INITIAL_SHIPS];
+        shipCols = new int[INITIAL_SHIPS];
+        shipLengths = new int[INITIAL_SHIPS];
+        shipSymbols = new char[INITIAL_SHIPS];
+        shipCount = 0;
+        shipCells = 0;
+        buildShipIndex(board);
+    }
+
+    /**
+     * Constructor for AvailableFleets
+     * Creates a new AvailableFleet from its bit boards, as written by writePlanes,
+     * and the symbols of its ships, without going through a board of chars.
+     * The position and length of each ship are found from its head.
+     *
+     * @param index    int that represents the position of the fleet in its catalog
+     * @param rows     int that represents the number of rows
+     * @param cols     int that represents the number of columns
+     * @param ships    words of the cells occupied by a ship
+     * @param heads    words of the first cell of each ship
+     * @param vertical words of the cells of vertical ships
+     * @param symbols  symbols of the ships, in the order of their heads
+     * @pre index >= 0 && rows > 0 && cols > 0 && the words are of a board with those dimensions
+     *      && symbols.length is the number of heads
+     */
+    public AvailableFleet(int index, int rows, int cols, long[] ships, long[] heads, long[] vertical,
+            char[] symbols) {
+        this.index = index;
+        this.ships = new BitBoard(rows, cols, ships);
+        this.heads = new BitBoard(rows, cols, heads);
+        this.vertical = new BitBoard(rows, cols, vertical);
+        columnHeads = new BitBoard(cols, rows);
+        shipRows = new int[symbols.length];
+        shipCols = new int[symbols.length];
+        shipLengths = new int[symbols.length];
+        shipSymbols = symbols;
+        shipCount = 0;
+        shipCells = 0;
+        for (int i = 0; i < rows; i++)
+            for (int w = 0; w < wordsPerRow(); w++)
+                for (long word = this.heads.word(i, w); word != 0; word &= word - 1) {
+                    int col = (w << 6) + Long.numberOfTrailingZeros(word);
+                    shipRows[shipCount] = i;
+                    shipCols[shipCount] = col;
+                    shipLengths[shipCount] = headLength(i, col);
+                    shipCells += shipLengths[shipCount];
+                    if (this.vertical.get(i, col))
+                        columnHeads.set(col, i);
+                    shipCount++;
+                }
+        this.heads.buildRanks();
+    }
+
+    /**
+     * This method returns the position of the fleet in its catalog, by which games
+     * refer to it outside the process
+     *
+     * @return int The index of the fleet, starting at 0
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * This method returns the number of rows of the fleet
+     *
+     * @return int Number of rows
+     */
+    public int maxRow() {
+        return ships.rows();
+    }
+
+    /**
+     * This method returns the number of columns of the fleet
+     *
+     * @return int Number of columns
+     */
+    public int maxCol() {
+        return ships.cols();
+    }
+
+    /**
+     * This method returns the number of ships of the fleet
+     *
+     * @return int Number of ships
+     */
+    public int shipCount() {
+        return shipCount;
+    }
+
+    /**
+     * This method returns the number of cells occupied by ships
+     *
+     * @return int Number of cells occupied by ships
+     */
+    public int shipCells() {
+        return shipCells;
+    }
+
+    /**
+     * Checks if there is a ship in the given position
+     *
+     * @param row int that represents the row of the position
+     * @param col int that represents the column of the position
+     * @return boolean Whether there is a ship in the position
+     * @pre row >= 0 && row < maxRow() && col >= 0 && col < maxCol()
+     */
+    public boolean isShip(int row, int col) {
+        return ships.get(row, col);
+    }
+
+    /**
+     * This method returns the given word of the given row of the occupied cells.
+     * Bit i of the word is the column (word * 64 + i).
+     *
+     * @param row  int that represents the row
+     * @param word int that represents the index of the word inside the row
+     * @return long The word
+     * @pre row >= 0 && row < maxRow() && word >= 0 && word < wordsPerRow()
+     */
+    public long shipWord(int row, int word) {
+        return ships.word(row, word);
+    }
+
+    /**
+     * This method returns the number of words used by each row
+     *
+     * @return int Number of words in each row
+     */
+    public int wordsPerRow() {
+        return ships.wordsPerRow();
+    }
+
+    /**
+     * Returns the id of the ship in the given position.
+     * The head of a horizontal ship is the previous head in the same row, and the
+     * head of a vertical ship the previous head of a vertical ship in the same
+     * column, found in the row of that column in columnHeads, so both are found a
+     * word of 64 cells at a time, whatever the direction of the ship.
+     *
+     * @param row int that represents the row of the position
+     * @param col int that represents the column of the position
+     * @return int The id of the ship
+     * @pre isShip(row, col)
+     */
+    public int shipAt(int row, int col) {
+        if (vertical.get(row, col))
+            row = columnHeads.previousSetBit(col, row);
+        else
+            col = heads.previousSetBit(row, col);
+        return heads.rank(row, col);
+    }
+
+    /**
+     * This method returns the row of the first cell of the given ship
+     *
+     * @param ship int that represents the id of the ship
+     * @return int The row of the head of the ship
+     * @pre ship >= 0 && ship < shipCount()
+     */
+    public int shipRow(int ship) {
+        return shipRows[ship];
+    }
+
+    /**
+     * This method returns the column of the first cell of the given ship
+     *
+     * @param ship int that represents the id of the ship
+     * @return int The column of the head of the ship
+     * @pre ship >= 0 && ship < shipCount()
+     */
+    public int shipCol(int ship) {
+        return shipCols[ship];
+    }
+
+    /**
+     * This method returns the length of the given ship
+     *
+     * @param ship int that represents the id of the ship
+     * @return int The length of the ship
+     * @pre ship >= 0 && ship < shipCount()
+     */
+    public int shipLength(int ship) {
+        return shipLengths[ship];
+    }
+
+    /**
+     * This method returns the symbol of the given ship in the fleet
+     *
+     * @param ship int that represents the id of the ship
+     * @return char The symbol of the ship
+     * @pre ship >= 0 && ship < shipCount()
+     */
+    public char shipSymbol(int ship) {
+        return shipSymbols[ship];
+    }
+
+    /**
+     * Checks if the given ship is vertical
+     *
+     * @param ship int that represents the id of the ship
+     * @return boolean Whether the ship is vertical
+     * @pre ship >= 0 && ship < shipCount()
+     */
+    public boolean isVertical(int ship) {
+        return vertical.get(shipRows[ship], shipCols[ship]);
+    }
+
+    /**
+     * Writes the bit boards of the fleet (occupied cells, heads and vertical cells,
+     * in this order) to the given buffer, with bulk puts
+     *
+     * @param out The buffer where the words are written
+     * @pre out != null && out.remaining() >= 3 * BitBoard.wordCount(maxRow(), maxCol())
+     */
+    public void writePlanes(LongBuffer out) {
+        ships.writeTo(out);
+        heads.writeTo(out);
+        vertical.writeTo(out);
+    }
+
+    /**
+     * Returns the length of the ship whose head is in the given position, going
+     * down a vertical ship or right through a horizontal one until another ship starts
+     *
+     * @param row int that represents the row of the head
+     * @param col int that represents the column of the head
+     * @return int Length of the ship
+     * @pre heads.get(row, col)
+     */
+    private int headLength(int row, int col) {
+        int length = 1;
+        if (vertical.get(row, col))
+            while (row + length < maxRow() && vertical.get(row + length, col) && !heads.get(row + length, col))
+                length++;
+        else
+            while (col + length < maxCol() && ships.get(row, col + length) && !heads.get(row, col + length)
+                    && !vertical.get(row, col + length))
+                length++;
+        return length;
+    }
+
+    /**
+     * Builds the ship index of the given board.
+     * Every ship is a straight segment of equal chars, horizontal if it has more
+     * than one cell in its row and vertical otherwise; TextFleetCatalog rejects the
+     * fleets whose ships are not, so that a hit sinks the same cells as the cross of
+     * equal chars around the shot did.
+     *
+     * @param board Array of arrays of chars that represents the fleet
+     * @pre board != null && ships != null && heads != null && vertical != null
+     */
+    private void buildShipIndex(char[][] board) {
+        for (int i = 0; i < maxRow(); i++)
+            for (int j = 0; j < maxCol(); j++)
+                if (board[i][j] != EMPTY && !ships.get(i, j)) {
+                    boolean isVertical = segmentLength(board, i, j, 0, 1) == 1;
+                    int length = isVertical ? segmentLength(board, i, j, 1, 0) : segmentLength(board, i, j, 0, 1);
+                    addShip(i, j, length, isVertical && length > 1, board[i][j]);
+                }
+        heads.buildRanks();
+    }
+
+    /**
+     * Returns the length of the segment of unindexed cells equal to the cell at
+     * the given position, starting at that position and going in the given direction
+     *
+     * @param board    Array of arrays of chars that represents the fleet
+     * @param row      int that represents the row of the first cell
+     * @param col      int that represents the column of the first cell
+     * @param rowDelta int that represents the row delta
+     * @param colDelta int that represents the column delta
+     * @return int Length of the segment
+     * @pre board != null && ships != null && row >= 0 && col >= 0
      */
-    public AvailableFleet(char[][] board) {
-        this.board = board;
+    private int segmentLength(char[][] board, int row, int col, int rowDelta, int colDelta) {
+        char target = board[row][col];
+        int length = 0;
+        while (row < maxRow() && col < maxCol() &&
+                board[row][col] == target && !ships.get(row, col)) {
+            length++;
+            row += rowDelta;
+            col += colDelta;
+        }
+        return length;
     }
 
     /**
-     * This method returns the board of the fleet
+     * Adds a new ship to the ship index and marks its cells in the bit boards.
+     * Ships are added in row-major order of their heads, so the id of a ship is the
+     * rank of its head.
      *
-     * @return char[][] The board of the fleet
-     * @pre board != null
+     * @param row        int that represents the row of the first cell of the ship
+     * @param col        int that represents the column of the first cell of the ship
+     * @param length     int that represents the length of the ship
+     * @param isVertical boolean that represents whether the ship is vertical
+     * @param symbol     char that represents the ship in the fleet
+     * @pre row >= 0 && col >= 0 && length > 0 && ships != null
      */
-    public char[][] getBoard() {
-        return board;
+    private void addShip(int row, int col, int length, boolean isVertical, char symbol) {
+        if (shipCount == shipLengths.length) { // if the arrays are full, doubles their size
+            shipRows = Arrays.copyOf(shipRows, shipCount * 2);
+            shipCols = Arrays.copyOf(shipCols, shipCount * 2);
+            shipLengths = Arrays.copyOf(shipLengths, shipCount * 2);
+            shipSymbols = Arrays.copyOf(shipSymbols, shipCount * 2);
+        }
+        shipRows[shipCount] = row;
+        shipCols[shipCount] = col;
+        shipLengths[shipCount] = length;
+        shipSymbols[shipCount] = symbol;
+        heads.set(row, col);
+        if (isVertical) {
+            columnHeads.set(col, row);
+            for (int i = 0; i < length; i++) {
+                ships.set(row + i, col);
+                vertical.set(row + i, col);
+            }
+        } else
+            ships.setRange(row, col, col + length);
+        shipCells += length;
+        shipCount++;
     }
 }
@@ -0,0 +1,438 @@
+/**
+ * Benchmark class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/*
+ * Benchmarks of the hot paths of the game, with no dependencies, so that they run
+ * wherever the game runs.
+ * Every benchmark is run over each combination of board size, ship density and
+ * number of players. Each iteration gets a fresh state from an untimed setup and
+ * then runs a fixed number of operations on it; the results of the operations
+ * are summed into a sink so that the JIT can not drop them.
+ * Boards are generated from a fixed seed, so runs on different versions of the
+ * game measure the same work and can be compared line by line.
+ */
+public class Benchmark {
+    // constants of Benchmark Class
+    private static final long SEED = 42;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+    private static final int OPERATIONS = 1 << 12; // operations of each iteration
+    private static final int MAX_SHIP_LENGTH = 5;
+    private static final int CATALOG_FLEETS = 16;
+    private static final String DEFAULT_SIZES = "10,100,1000";
+    private static final String DEFAULT_DENSITIES = "0.1,0.3";
+    private static final String DEFAULT_PLAYERS = "2,64,1024";
+    private static final String SYMBOLS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    // variables of Benchmark Class
+    private static long sink; // results of the operations
+
+    /**
+     * One operation of a benchmark
+     */
+    private interface Operation {
+        /**
+         * Runs the operation with the given number
+         *
+         * @param i int that represents the number of the operation in its iteration
+         * @return long A result of the operation, summed into the sink
+         */
+        long run(int i);
+    }
+
+    /**
+     * Runs every benchmark and prints one line per benchmark and combination of
+     * parameters, with the average and the best time per operation.
+     * Usage: Benchmark [sizes] [densities] [players], each a list separated by commas
+     *
+     * @param args the board sizes (rows = columns), the fractions of the board
+     *             occupied by ships and the numbers of players
+     * @throws IOException if the files of the catalog benchmarks can not be written
+     */
+    public static void main(String[] args) throws IOException {
+        String[] sizes = (args.length > 0 ? args[0] : DEFAULT_SIZES).split(",");
+        String[] densities = (args.length > 1 ? args[1] : DEFAULT_DENSITIES).split(",");
+        String[] players = (args.length > 2 ? args[2] : DEFAULT_PLAYERS).split(",");
+        System.out.printf("%-28s %6s %8s %8s %14s %14s%n", "benchmark", "size", "density", "players",
+                "avg ns/op", "best ns/op");
+        for (String size : sizes)
+            for (String density : densities) {
+                AvailableFleet fleet = generateFleet(Integer.parseInt(size), Double.parseDouble(density));
+                for (String count : players)
+                    runAll(fleet, Integer.parseInt(size), Double.parseDouble(density), Integer.parseInt(count));
+            }
+        if (sink == 42) // only read so that the results are not dropped
+            System.out.println();
+    }
+
+    /**
+     * Runs every benchmark for the given parameters
+     *
+     * @param fleet   the fleet of every player
+     * @param size    int that represents the number of rows and columns of the board
+     * @param density double that represents the fraction of the board occupied by ships
+     * @param players int that represents the number of players
+     * @throws IOException if the files of the catalog benchmarks can not be written
+     * @pre fleet != null && fleet.shipCount() > 0 && players > 1
+     */
+    private static void runAll(AvailableFleet fleet, int size, double density, int players) throws IOException {
+        String params = String.format(Locale.ROOT, " %6d %8.2f %8d", size, density, players);
+        int[] heads = shipHeads(fleet);
+        int[] water = waterCells(fleet);
+        int ships = fleet.shipCount();
+
+        // sinking a ship changes the player, so each round starts with a fresh one
+        run("Player.takeHit fresh", params, rounds(ships), ships, () -> {
+            Player player = new Player("p", fleet);
+            return i -> player.takeHit(heads[2 * i], heads[2 * i + 1]);
+        });
+        run("Player.takeHit repeat", params, 1, OPERATIONS, () -> {
+            Player player = sunkPlayer(fleet, heads);
+            return i -> player.takeHit(heads[2 * (i % ships)], heads[2 * (i % ships) + 1]);
+        });
+        run("Player.takeHit miss", params, 1, OPERATIONS, () -> {
+            Player player = new Player("p", fleet);
+            return i -> player.takeHit(water[2 * (i % (water.length / 2))], water[2 * (i % (water.length / 2)) + 1]);
+        });
+        run("Player.shipsSunk", params, 1, OPERATIONS, () -> {
+            Player player = new Player("p", fleet);
+            return i -> player.shipsSunk() ? 1 : 0;
+        });
+
+        String[] names = names(players);
+        int shots = Math.min(OPERATIONS, ships * (players - 1)); // shots before every ship is sunk
+        run("Game.shoot", params, rounds(shots), shots, () -> {
+            Game game = newGame(names, fleet);
+            return i -> {
+                if (game.isOver())
+                    return 0;
+                String target = nextTarget(game, names, i / ships);
+                game.shoot(heads[2 * (i % ships)], heads[2 * (i % ships) + 1], target);
+                return game.getScoreOf(target);
+            };
+        });
+        run("Game.getPlayer", params, 1, OPERATIONS, () -> {
+            Game game = newGame(names, fleet);
+            return i -> game.getPlayer(names[i % players]).getScore();
+        });
+        run("Game.OrderedPlayerIterator", params, 1, Math.max(1, OPERATIONS / players), () -> {
+            Game game = scoredGame(names, fleet, heads);
+            return i -> {
+                long total = 0;
+                OrderedPlayerList list = game.OrderedPlayerIterator();
+                while (list.hasNextPlayer())
+                    total += list.nextPlayer().getScore();
+                return total;
+            };
+        });
+        run("Game.getWinnerName", params, 1, Math.max(1, OPERATIONS / players), () -> {
+            Game game = scoredGame(names, fleet, heads);
+            return i -> game.getWinnerName().length();
+        });
+
+        if (players == 2) { // the catalog does not depend on the number of players
+            Path text = writeCatalog(fleet);
+            Path binary = Files.createTempFile("fleets", ".bin");
+            BinaryFleetCatalog.write(new TextFleetCatalog(text.toString()), binary.toString());
+            run("TextFleetCatalog.getFleet", params, 1, CATALOG_FLEETS, () -> {
+                TextFleetCatalog catalog = openText(text);
+                return i -> catalog.getFleet(i).shipCount();
+            });
+            run("BinaryFleetCatalog.getFleet", params, 1, CATALOG_FLEETS, () -> {
+                BinaryFleetCatalog catalog = openBinary(binary);
+                return i -> catalog.getFleet(i).shipCount();
+            });
+            Files.delete(text);
+            Files.delete(binary);
+        }
+    }
+
+    /**
+     * Runs the given benchmark and prints its line.
+     * Each iteration runs the given number of rounds, each one with the given number
+     * of operations over a fresh state; only the operations are timed.
+     *
+     * @param name       the name of the benchmark
+     * @param params     the parameters of the benchmark, as printed
+     * @param rounds     int that represents the number of rounds of each iteration
+     * @param operations int that represents the number of operations of each round
+     * @param setup      returns the operation over a fresh state, untimed
+     * @pre name != null && rounds > 0 && operations > 0 && setup != null
+     */
+    private static void run(String name, String params, int rounds, int operations, Supplier<Operation> setup) {
+        double total = 0;
+        double best = Double.MAX_VALUE;
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS + MEASURED_ITERATIONS; iteration++) {
+            long elapsed = 0;
+            long result = 0;
+            for (int round = 0; round < rounds; round++) {
+                Operation operation = setup.get();
+                long start = System.nanoTime();
+                for (int i = 0; i < operations; i++)
+                    result += operation.run(i);
+                elapsed += System.nanoTime() - start;
+            }
+            double nanos = (double) elapsed / ((long) rounds * operations);
+            sink += result;
+            if (iteration >= WARMUP_ITERATIONS) {
+                total += nanos;
+                best = Math.min(best, nanos);
+            }
+        }
+        System.out.printf(Locale.ROOT, "%-28s%s %14.1f %14.1f%n", name, params, total / MEASURED_ITERATIONS, best);
+    }
+
+    /**
+     * Returns the number of rounds of the given number of operations that make up
+     * an iteration of about OPERATIONS operations
+     *
+     * @param operations int that represents the number of operations of each round
+     * @return int The number of rounds
+     * @pre operations > 0
+     */
+    private static int rounds(int operations) {
+        return (OPERATIONS + operations - 1) / operations;
+    }
+
+    /**
+     * Generates a square fleet with the given size, with straight ships of random
+     * lengths and directions, none touching another, until the given fraction of the
+     * board is occupied or no more ships fit
+     *
+     * @param size    int that represents the number of rows and columns
+     * @param density double that represents the fraction of the board to occupy
+     * @return AvailableFleet The fleet
+     * @pre size > 0 && density > 0 && density < 1
+     */
+    private static AvailableFleet generateFleet(int size, double density) {
+        Random random = new Random(SEED);
+        char[][] board = new char[size][size];
+        for (char[] row : board)
+            Arrays.fill(row, '.');
+        int cells = 0;
+        int ships = 0;
+        for (int attempt = 0; cells < density * size * size && attempt < 100 * size * size; attempt++) {
+            int length = 1 + random.nextInt(Math.min(MAX_SHIP_LENGTH, size));
+            boolean vertical = random.nextBoolean();
+            int row = random.nextInt(vertical ? size - length + 1 : size);
+            int col = random.nextInt(vertical ? size : size - length + 1);
+            if (isFree(board, row, col, vertical ? length : 1, vertical ? 1 : length)) {
+                for (int i = 0; i < length; i++)
+                    board[vertical ? row + i : row][vertical ? col : col + i] = SYMBOLS.charAt(ships % SYMBOLS.length());
+                cells += length;
+                ships++;
+            }
+        }
+        return new AvailableFleet(0, board);
+    }
+
+    /**
+     * Checks if the given rectangle and the cells around it are all empty
+     *
+     * @param board  the board
+     * @param row    int that represents the first row of the rectangle
+     * @param col    int that represents the first column of the rectangle
+     * @param height int that represents the number of rows of the rectangle
+     * @param width  int that represents the number of columns of the rectangle
+     * @return boolean Whether a ship fits in the rectangle
+     * @pre board != null && the rectangle is inside the board
+     */
+    private static boolean isFree(char[][] board, int row, int col, int height, int width) {
+        boolean free = true;
+        for (int i = Math.max(0, row - 1); free && i <= Math.min(board.length - 1, row + height); i++)
+            for (int j = Math.max(0, col - 1); free && j <= Math.min(board[i].length - 1, col + width); j++)
+                free = board[i][j] == '.';
+        return free;
+    }
+
+    /**
+     * Returns the 1-based position of the head of every ship, as row, column pairs
+     *
+     * @param fleet the fleet
+     * @return int[] The positions, in the order of the ships
+     * @pre fleet != null
+     */
+    private static int[] shipHeads(AvailableFleet fleet) {
+        int[] heads = new int[2 * fleet.shipCount()];
+        for (int i = 0; i < fleet.shipCount(); i++) {
+            heads[2 * i] = fleet.shipRow(i) + 1;
+            heads[2 * i + 1] = fleet.shipCol(i) + 1;
+        }
+        return heads;
+    }
+
+    /**
+     * Returns the 1-based position of up to OPERATIONS empty cells, as row,
+     * column pairs, spread over the board
+     *
+     * @param fleet the fleet
+     * @return int[] The positions
+     * @pre fleet != null
+     */
+    private static int[] waterCells(AvailableFleet fleet) {
+        Random random = new Random(SEED);
+        int[] cells = new int[2 * OPERATIONS];
+        int count = 0;
+        for (int attempt = 0; count < OPERATIONS && attempt < 16 * OPERATIONS; attempt++) {
+            int row = random.nextInt(fleet.maxRow());
+            int col = random.nextInt(fleet.maxCol());
+            if (!fleet.isShip(row, col)) {
+                cells[2 * count] = row + 1;
+                cells[2 * count++ + 1] = col + 1;
+            }
+        }
+        return Arrays.copyOf(cells, 2 * Math.max(count, 1));
+    }
+
+    /**
+     * Returns a new player with every ship of the given fleet sunk
+     *
+     * @param fleet the fleet of the player
+     * @param heads the positions of the heads of the ships
+     * @return Player The player
+     * @pre fleet != null && heads != null
+     */
+    private static Player sunkPlayer(AvailableFleet fleet, int[] heads) {
+        Player player = new Player("p", fleet);
+        for (int i = 0; i < heads.length; i += 2)
+            player.takeHit(heads[i], heads[i + 1]);
+        return player;
+    }
+
+    /**
+     * Returns the given number of distinct player names
+     *
+     * @param players int that represents the number of players
+     * @return String[] The names
+     * @pre players > 0
+     */
+    private static String[] names(int players) {
+        String[] names = new String[players];
+        for (int i = 0; i < players; i++)
+            names[i] = "Player" + i;
+        return names;
+    }
+
+    /**
+     * Returns a new game with the given players, all with the given fleet
+     *
+     * @param names the names of the players
+     * @param fleet the fleet of every player
+     * @return Game The game, ready to be played
+     * @pre names != null && names.length > 1 && fleet != null
+     */
+    private static Game newGame(String[] names, AvailableFleet fleet) {
+        Game game = new Game(names.length);
+        for (String name : names)
+            game.addPlayer(name, fleet);
+        game.setCurrentPlayer();
+        return game;
+    }
+
+    /**
+     * Returns a new game where every player has already hit a ship, so that the
+     * game has scores to order and a winner
+     *
+     * @param names the names of the players
+     * @param fleet the fleet of every player
+     * @param heads the positions of the heads of the ships
+     * @return Game The game
+     * @pre names != null && names.length > 1 && fleet != null && heads != null
+     */
+    private static Game scoredGame(String[] names, AvailableFleet fleet, int[] heads) {
+        Game game = newGame(names, fleet);
+        for (int i = 0; i < names.length && !game.isOver(); i++) {
+            int ship = i % (heads.length / 2);
+            game.shoot(heads[2 * ship], heads[2 * ship + 1], nextTarget(game, names, i));
+        }
+        return game;
+    }
+
+    /**
+     * Returns the name of a player that the current player can shoot at, starting
+     * the search at the given position
+     *
+     * @param game  the game
+     * @param names the names of the players
+     * @param from  int that represents the position where the search starts
+     * @return String The name of the target
+     * @pre game != null && !game.isOver()
+     */
+    private static String nextTarget(Game game, String[] names, int from) {
+        String current = game.getNameOfCurrent();
+        int i = from % names.length;
+        while (names[i].equals(current) || game.playerEliminated(names[i]))
+            i = (i + 1) % names.length;
+        return names[i];
+    }
+
+    /**
+     * Writes a text catalog with CATALOG_FLEETS copies of the given fleet
+     *
+     * @param fleet the fleet
+     * @return Path The file of the catalog
+     * @throws IOException if the file can not be written
+     * @pre fleet != null
+     */
+    private static Path writeCatalog(AvailableFleet fleet) throws IOException {
+        Path file = Files.createTempFile("fleets", ".txt");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            char[] row = new char[fleet.maxCol()];
+            for (int f = 0; f < CATALOG_FLEETS; f++) {
+                out.println(fleet.maxRow() + " " + fleet.maxCol());
+                for (int i = 0; i < fleet.maxRow(); i++) {
+                    for (int j = 0; j < fleet.maxCol(); j++)
+                        row[j] = fleet.isShip(i, j) ? fleet.shipSymbol(fleet.shipAt(i, j)) : '.';
+                    out.println(row);
+                }
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Opens the given text catalog, rethrowing its failure as unchecked
+     *
+     * @param file the file of the catalog
+     * @return TextFleetCatalog The catalog
+     * @pre file != null
+     */
+    private static TextFleetCatalog openText(Path file) {
+        try {
+            return new TextFleetCatalog(file.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens the given binary catalog, rethrowing its failure as unchecked
+     *
+     * @param file the file of the catalog
+     * @return BinaryFleetCatalog The catalog
+     * @pre file != null
+     */
+    private static BinaryFleetCatalog openBinary(Path file) {
+        try {
+            return new BinaryFleetCatalog(file.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * BinaryFleetCatalog class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Layout of the file, every number in big-endian:
+ *   header        int MAGIC, int VERSION, int number of fleets, int 0
+ *   offset table  one long per fleet, the position of its payload in the file, or 0
+ *                 for a fleet the text catalog rejected, which has no payload
+ *   payload       int rows, int cols, int number of ships, int 0,
+ *                 the words of the occupied cells, of the heads and of the vertical cells
+ *                 (rows * ((cols + 63) / 64) longs each), then one char per ship with its symbol
+ */
+public class BinaryFleetCatalog implements FleetCatalog {
+    // constants of BinaryFleetCatalog Class
+    private static final int MAGIC = 0x42534643; // "BSFC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int OFFSET_SIZE = Long.BYTES;
+    private static final int PAYLOAD_HEADER_SIZE = 16;
+    private static final int PLANES = 3;
+    // variables of BinaryFleetCatalog Class
+    private final FileChannel channel;
+    private final AtomicReferenceArray<AvailableFleet> fleets; // fleets already built, null until chosen
+
+    /**
+     * Constructor for BinaryFleetCatalog
+     * Opens the given binary catalog and reads only its header, so opening takes the
+     * same time whatever the number of fleets.
+     *
+     * @param fileName The name of the binary file of fleets
+     * @throws IOException if the file can not be read or is not a binary catalog
+     * @pre fileName != null
+     */
+    public BinaryFleetCatalog(String fileName) throws IOException {
+        channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ);
+        ByteBuffer header = read(0, HEADER_SIZE);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION)
+            throw new IOException(fileName + " is not a binary fleet catalog");
+        fleets = new AtomicReferenceArray<>(header.getInt());
+    }
+
+    /**
+     * This method returns the number of fleets in the catalog
+     *
+     * @return int Number of fleets
+     */
+    @Override
+    public int size() {
+        return fleets.length();
+    }
+
+    /**
+     * Returns the fleet with the given index, reading it from the file the first
+     * time it is chosen: one read of its offset and one of its payload.
+     * No lock is taken: threads that ask for a fleet not read yet may each read it,
+     * with positional reads that do not interfere, and the first one to publish it
+     * wins, so every caller gets the same fleet.
+     *
+     * @param index int that represents the index of the fleet, starting at 0
+     * @return AvailableFleet The fleet, or null if there is no fleet with that index
+     *                        or it was rejected
+     * @pre index >= 0
+     */
+    @Override
+    public AvailableFleet getFleet(int index) {
+        AvailableFleet fleet = null;
+        if (index < fleets.length()) {
+            fleet = fleets.get(index);
+            if (fleet == null) {
+                try {
+                    long offset = read(HEADER_SIZE + (long) index * OFFSET_SIZE, OFFSET_SIZE).getLong();
+                    if (offset != 0)
+                        fleets.compareAndSet(index, null, readFleet(index, offset));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                fleet = fleets.get(index);
+            }
+        }
+        return fleet;
+    }
+
+    /**
+     * Writes every fleet of the given text catalog to a new binary catalog.
+     * Fleets are built one at a time, so the text catalog is never held in memory.
+     * The fleets it rejected keep their index, with no payload.
+     *
+     * @param source   The text catalog to convert
+     * @param fileName The name of the binary file to write
+     * @throws IOException if the file can not be written
+     * @pre source != null && fileName != null
+     */
+    public static void write(TextFleetCatalog source, String fileName) throws IOException {
+        try (FileChannel out = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(source.size()).putInt(0).flip();
+            writeFully(out, header, 0);
+
+            ByteBuffer offsets = ByteBuffer.allocate(source.size() * OFFSET_SIZE);
+            long position = HEADER_SIZE + (long) source.size() * OFFSET_SIZE; // payloads after the table
+            for (int i = 0; i < source.size(); i++) {
+                AvailableFleet fleet = source.readFleet(i);
+                offsets.putLong(fleet == null ? 0 : position);
+                if (fleet != null)
+                    position += writeFleet(out, fleet, position);
+            }
+            writeFully(out, offsets.flip(), HEADER_SIZE);
+        }
+    }
+
+    /**
+     * Writes the payload of the given fleet in the given position of the file
+     *
+     * @param out      The file where the fleet is written
+     * @param fleet    The fleet to write
+     * @param position The position of the payload in the file
+     * @return long The size of the payload in bytes
+     * @throws IOException if the file can not be written
+     * @pre out != null && fleet != null
+     */
+    private static long writeFleet(FileChannel out, AvailableFleet fleet, long position) throws IOException {
+        int words = BitBoard.wordCount(fleet.maxRow(), fleet.maxCol());
+        ByteBuffer payload = ByteBuffer.allocate(payloadSize(words, fleet.shipCount()));
+        payload.putInt(fleet.maxRow()).putInt(fleet.maxCol()).putInt(fleet.shipCount()).putInt(0);
+        fleet.writePlanes(payload.asLongBuffer());
+        payload.position(PAYLOAD_HEADER_SIZE + PLANES * words * Long.BYTES);
+        for (int i = 0; i < fleet.shipCount(); i++)
+            payload.putChar(fleet.shipSymbol(i));
+        writeFully(out, payload.clear(), position); // the whole payload, with its padding
+        return payload.capacity();
+    }
+
+    /**
+     * Builds the fleet whose payload is in the given position of the file
+     *
+     * @param index  int that represents the index of the fleet
+     * @param offset long that represents the position of the payload
+     * @return AvailableFleet The fleet
+     * @throws IOException if the file can not be read
+     * @pre offset is the position of a payload in the file
+     */
+    private AvailableFleet readFleet(int index, long offset) throws IOException {
+        ByteBuffer header = read(offset, PAYLOAD_HEADER_SIZE);
+        int rows = header.getInt();
+        int cols = header.getInt();
+        int shipCount = header.getInt();
+        int words = BitBoard.wordCount(rows, cols);
+        ByteBuffer payload = read(offset + PAYLOAD_HEADER_SIZE, payloadSize(words, shipCount) - PAYLOAD_HEADER_SIZE);
+
+        long[] ships = new long[words];
+        long[] heads = new long[words];
+        long[] vertical = new long[words];
+        payload.asLongBuffer().get(ships).get(heads).get(vertical);
+        char[] symbols = new char[shipCount];
+        payload.position(PLANES * words * Long.BYTES);
+        payload.asCharBuffer().get(symbols);
+        return new AvailableFleet(index, rows, cols, ships, heads, vertical, symbols);
+    }
+
+    /**
+     * Reads the given number of bytes from the given position of the file
+     *
+     * @param position long that represents the position of the first byte
+     * @param length   int that represents the number of bytes
+     * @return ByteBuffer The bytes read, ready to be read
+     * @throws IOException if the file can not be read or ends before
+     * @pre position >= 0 && length >= 0
+     */
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining())
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new EOFException();
+        return buffer.flip();
+    }
+
+    /**
+     * Writes every byte of the given buffer in the given position of the file
+     *
+     * @param out      The file where the bytes are written
+     * @param buffer   The bytes to write
+     * @param position long that represents the position of the first byte
+     * @throws IOException if the file can not be written
+     * @pre out != null && buffer != null && position >= 0
+     */
+    private static void writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining())
+            out.write(buffer, position + buffer.position());
+    }
+
+    /**
+     * Returns the size in bytes of a payload, rounded up to a multiple of 8 so
+     * that every payload starts aligned
+     *
+     * @param words     int that represents the number of words of each bit board
+     * @param shipCount int that represents the number of ships
+     * @return int The size of the payload
+     * @pre words > 0 && shipCount >= 0
+     */
+    private static int payloadSize(int words, int shipCount) {
+        int size = PAYLOAD_HEADER_SIZE + PLANES * words * Long.BYTES + shipCount * Character.BYTES;
+        return (size + Long.BYTES - 1) & -Long.BYTES;
+    }
+}
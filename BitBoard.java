@@ -0,0 +1,220 @@
+/**
+ * BitBoard class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.nio.LongBuffer;
+
+public class BitBoard {
+    // constants of BitBoard Class
+    private static final int WORD_SHIFT = 6; // 64 bits per word
+    private static final int WORD_MASK = 63;
+    // variables of BitBoard Class
+    private final int rows;
+    private final int cols;
+    private final int wordsPerRow;
+    private final long[] words;
+    private int[] ranks;
+
+    /**
+     * Constructor for BitBoard
+     * Creates a new BitBoard with the given dimensions and every bit cleared.
+     * Each row starts at the beginning of a word, so rows can be read word by word.
+     *
+     * @param rows int that represents the number of rows
+     * @param cols int that represents the number of columns
+     * @pre rows > 0 && cols > 0
+     */
+    public BitBoard(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        wordsPerRow = (cols + WORD_MASK) >>> WORD_SHIFT;
+        words = new long[rows * wordsPerRow];
+    }
+
+    /**
+     * Constructor for BitBoard
+     * Creates a new BitBoard with the given dimensions over the given words, which
+     * are used as they are, with each row starting at the beginning of a word.
+     *
+     * @param rows  int that represents the number of rows
+     * @param cols  int that represents the number of columns
+     * @param words array of words, wordsPerRow words per row
+     * @pre rows > 0 && cols > 0 && words.length == rows * ((cols + 63) / 64)
+     */
+    public BitBoard(int rows, int cols, long[] words) {
+        this.rows = rows;
+        this.cols = cols;
+        wordsPerRow = (cols + WORD_MASK) >>> WORD_SHIFT;
+        this.words = words;
+    }
+
+    /**
+     * This method returns the total number of words of the board
+     *
+     * @param rows int that represents the number of rows
+     * @param cols int that represents the number of columns
+     * @return int Number of words of a board with those dimensions
+     */
+    public static int wordCount(int rows, int cols) {
+        return rows * ((cols + WORD_MASK) >>> WORD_SHIFT);
+    }
+
+    /**
+     * Writes every word of the board, row by row, to the given buffer in a single bulk put
+     *
+     * @param out The buffer where the words are written
+     * @pre out != null && out.remaining() >= wordCount(rows, cols)
+     */
+    public void writeTo(LongBuffer out) {
+        out.put(words);
+    }
+
+    /**
+     * This method returns the number of rows
+     *
+     * @return int Number of rows
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * This method returns the number of columns
+     *
+     * @return int Number of columns
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * This method returns the number of words used by each row
+     *
+     * @return int Number of words in each row
+     */
+    public int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * This method returns the given word of the given row.
+     * Bit i of the word is the column (word * 64 + i).
+     *
+     * @param row  int that represents the row
+     * @param word int that represents the index of the word inside the row
+     * @return long The word
+     * @pre row >= 0 && row < rows && word >= 0 && word < wordsPerRow
+     */
+    public long word(int row, int word) {
+        return words[row * wordsPerRow + word];
+    }
+
+    /**
+     * Checks if the bit of the given position is set
+     *
+     * @param row int that represents the row
+     * @param col int that represents the column
+     * @return boolean Whether the bit is set
+     * @pre row >= 0 && row < rows && col >= 0 && col < cols
+     */
+    public boolean get(int row, int col) {
+        return (words[index(row, col)] & (1L << col)) != 0;
+    }
+
+    /**
+     * Sets the bit of the given position
+     *
+     * @param row int that represents the row
+     * @param col int that represents the column
+     * @pre row >= 0 && row < rows && col >= 0 && col < cols
+     */
+    public void set(int row, int col) {
+        words[index(row, col)] |= 1L << col;
+    }
+
+    /**
+     * Sets the bits of the given row from fromCol (inclusive) to toCol (exclusive),
+     * a whole word at a time
+     *
+     * @param row     int that represents the row
+     * @param fromCol int that represents the first column to set
+     * @param toCol   int that represents the column after the last one to set
+     * @pre row >= 0 && row < rows && fromCol >= 0 && fromCol <= toCol && toCol <= cols
+     */
+    public void setRange(int row, int fromCol, int toCol) {
+        if (fromCol < toCol) {
+            int first = index(row, fromCol);
+            int last = index(row, toCol - 1);
+            long firstMask = -1L << fromCol; // shifts are taken modulo 64
+            long lastMask = -1L >>> -toCol;
+            if (first == last)
+                words[first] |= firstMask & lastMask;
+            else {
+                words[first] |= firstMask;
+                for (int i = first + 1; i < last; i++)
+                    words[i] = -1L;
+                words[last] |= lastMask;
+            }
+        }
+    }
+
+    /**
+     * Returns the column of the last set bit of the given row at or before the given column
+     *
+     * @param row int that represents the row
+     * @param col int that represents the column to start searching from
+     * @return int The column of the set bit, or -1 if there is none
+     * @pre row >= 0 && row < rows && col >= 0 && col < cols
+     */
+    public int previousSetBit(int row, int col) {
+        int rowStart = row * wordsPerRow;
+        int i = index(row, col);
+        long word = words[i] & (-1L >>> (WORD_MASK - (col & WORD_MASK))); // keeps the bits up to col
+        while (word == 0 && i > rowStart)
+            word = words[--i];
+        return word == 0 ? -1 : ((i - rowStart) << WORD_SHIFT) + WORD_MASK - Long.numberOfLeadingZeros(word);
+    }
+
+    /**
+     * Precomputes the number of set bits before each word, so that rank can answer in constant time.
+     * Must be called again if the board changes.
+     */
+    public void buildRanks() {
+        ranks = new int[words.length];
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            ranks[i] = count;
+            count += Long.bitCount(words[i]);
+        }
+    }
+
+    /**
+     * Returns the number of set bits before the given position, in row-major order
+     *
+     * @param row int that represents the row
+     * @param col int that represents the column
+     * @return int The number of set bits before the position
+     * @pre buildRanks() was called after the last change && row >= 0 && row < rows && col >= 0 && col < cols
+     */
+    public int rank(int row, int col) {
+        int i = index(row, col);
+        return ranks[i] + Long.bitCount(words[i] & ((1L << col) - 1));
+    }
+
+    /**
+     * Returns the index of the word that holds the given position
+     *
+     * @param row int that represents the row
+     * @param col int that represents the column
+     * @return int The index of the word in the array of words
+     * @pre row >= 0 && col >= 0
+     */
+    private int index(int row, int col) {
+        return row * wordsPerRow + (col >>> WORD_SHIFT);
+    }
+}
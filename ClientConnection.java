@@ -0,0 +1,97 @@
+/**
+ * ClientConnection class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+public class ClientConnection {
+    // variables of ClientConnection Class
+    private final SocketChannel channel;
+    private final GameSession session; // the game played through the connection
+    private final OutputQueue output; // answers not sent yet
+    private boolean closing; // the input has ended, closes once the output is sent
+
+    /**
+     * Constructor for ClientConnection
+     * Creates a new ClientConnection that plays a new game through the given channel,
+     * as a run of Main with the channel as its input and output.
+     *
+     * @param channel the non-blocking channel of the connection
+     * @param fleets  the catalog of available fleets
+     * @pre channel != null && fleets != null
+     */
+    public ClientConnection(SocketChannel channel, FleetCatalog fleets) {
+        this.channel = channel;
+        output = new OutputQueue();
+        session = new GameSession(fleets, new CommandReader(), new CommandWriter(output));
+        closing = false;
+    }
+
+    /**
+     * Reads what the channel has, runs every command it completes and tries to send
+     * the answers at once. Pipelined commands are run in a single batch, and their
+     * answers are sent together.
+     * A line longer than CommandReader.MAX_LINE_LENGTH ends the game, as invalid
+     * input does, so a client that never ends its line can not make the session
+     * buffer its input without bound.
+     *
+     * @param key    the key of the connection
+     * @param buffer the direct buffer where the channel is read, shared by every connection
+     * @throws IOException if the channel can not be read or written
+     * @pre key.attachment() == this && buffer != null
+     */
+    public void read(SelectionKey key, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        int read = channel.read(buffer);
+        if (read > 0)
+            try {
+                session.feed(buffer.flip()); // straight from the buffer into the reader
+                session.runReadySteps();
+            } catch (RuntimeException e) { // invalid input ends the game, as it ends Main
+                closing = true;
+            }
+        else if (read < 0)
+            closing = true;
+        closing |= session.isFinished();
+        write(key);
+    }
+
+    /**
+     * Sends as much of the pending output as the channel takes. Waits for the channel
+     * to be writable if some is left, and closes the connection once everything is
+     * sent after the input has ended.
+     *
+     * @param key the key of the connection
+     * @throws IOException if the channel can not be written
+     * @pre key.attachment() == this
+     */
+    public void write(SelectionKey key) throws IOException {
+        if (output.writeTo(channel)) {
+            if (closing)
+                close(key);
+            else
+                key.interestOps(SelectionKey.OP_READ);
+        } else
+            key.interestOps(SelectionKey.OP_WRITE); // stops reading until the client takes its answers
+    }
+
+    /**
+     * Closes the connection
+     *
+     * @param key the key of the connection
+     * @throws IOException if the channel can not be closed
+     * @pre key.attachment() == this
+     */
+    public void close(SelectionKey key) throws IOException {
+        key.cancel();
+        channel.close();
+    }
+}
@@ -0,0 +1,404 @@
+/**
+ * CommandReader class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+public class CommandReader {
+    // constants of CommandReader Class
+    public static final int NO_MATCH = -1;
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    public static final int MAX_LINE_LENGTH = 1 << 22; // bytes of a fed line, at most
+    private static final String LONG_LINE_MESSAGE = "Line longer than " + MAX_LINE_LENGTH + " bytes";
+    // variables of CommandReader Class
+    private final InputStream in; // null if the reader is fed its input
+    private byte[] buffer;
+    private int position; // next byte to read
+    private int limit; // end of the bytes read from the input
+    private int tokenStart; // bytes from tokenStart on are kept when the buffer is refilled
+    private int tokenLength;
+    private int lineTail; // bytes fed after the last line separator, a line not complete yet
+
+    /**
+     * Constructor for CommandReader
+     * Creates a new CommandReader that reads the given input through a reusable buffer.
+     * Tokens are read in place: they are only turned into Strings if asked for.
+     *
+     * @param in The input from which the commands are read
+     * @pre in != null
+     */
+    public CommandReader(InputStream in) {
+        this.in = in;
+        buffer = new byte[INITIAL_BUFFER_SIZE];
+        position = 0;
+        limit = 0;
+        tokenStart = 0;
+        tokenLength = 0;
+        lineTail = 0;
+    }
+
+    /**
+     * Constructor for CommandReader
+     * Creates a new CommandReader that does not read any input by itself: its
+     * input is given to it with feed, as it arrives.
+     * Reading past the input fed so far is treated as the end of the input, so
+     * hasLine must be checked before each read.
+     */
+    public CommandReader() {
+        in = null;
+        buffer = new byte[INITIAL_BUFFER_SIZE];
+        position = 0;
+        limit = 0;
+        tokenStart = 0;
+        tokenLength = 0;
+        lineTail = 0;
+    }
+
+    /**
+     * Appends the given bytes to the input of the reader.
+     * The bytes already read are dropped, so it must only be called between commands.
+     *
+     * @param bytes  The bytes to append
+     * @param offset int that represents the position of the first byte
+     * @param length int that represents the number of bytes
+     * @throws InputMismatchException if a line would be longer than MAX_LINE_LENGTH,
+     *                                in which case nothing is appended
+     * @pre bytes != null && offset >= 0 && length >= 0 && the reader was created without an input
+     */
+    public void feed(byte[] bytes, int offset, int length) {
+        int tail = 0; // bytes after the last line separator
+        while (tail < length && !isLineSeparator(bytes[offset + length - 1 - tail]))
+            tail++;
+        int start = append(length, tail); // before buffer is read, as it may be replaced
+        System.arraycopy(bytes, offset, buffer, start, length);
+    }
+
+    /**
+     * Appends the remaining bytes of the given buffer to the input of the reader,
+     * copying them straight into the buffer of the reader.
+     * The bytes already read are dropped, so it must only be called between commands.
+     *
+     * @param bytes The buffer whose remaining bytes are appended, all of them read
+     * @throws InputMismatchException if a line would be longer than MAX_LINE_LENGTH,
+     *                                in which case nothing is appended
+     * @pre bytes != null && the reader was created without an input
+     */
+    public void feed(ByteBuffer bytes) {
+        int length = bytes.remaining();
+        int tail = 0; // bytes after the last line separator
+        while (tail < length && !isLineSeparator(bytes.get(bytes.position() + length - 1 - tail)))
+            tail++;
+        int start = append(length, tail); // before buffer is read, as it may be replaced
+        bytes.get(buffer, start, length);
+    }
+
+    /**
+     * Makes room for the given number of bytes after the bytes not read yet, which
+     * are moved to the start of the buffer, doubling its size until they all fit
+     *
+     * @param length int that represents the number of bytes to append
+     * @param tail   int that represents the bytes after the last line separator of
+     *               the bytes to append, or length if they have none
+     * @return int The position where the bytes go
+     * @throws InputMismatchException if a line would be longer than MAX_LINE_LENGTH
+     * @pre length >= 0 && tail >= 0 && tail <= length
+     */
+    private int append(int length, int tail) {
+        int line = tail < length ? tail : lineTail + length;
+        if (line > MAX_LINE_LENGTH)
+            throw new InputMismatchException(LONG_LINE_MESSAGE);
+        lineTail = line;
+        int keep = limit - position;
+        if (keep + length > buffer.length) { // doubles the size of the buffer until the bytes fit
+            int size = buffer.length * 2;
+            while (size < keep + length)
+                size *= 2;
+            byte[] aux = new byte[size];
+            System.arraycopy(buffer, position, aux, 0, keep);
+            buffer = aux;
+        } else
+            System.arraycopy(buffer, position, buffer, 0, keep);
+        position = 0;
+        tokenStart = 0;
+        limit = keep + length;
+        return keep;
+    }
+
+    /**
+     * Checks if the given byte ends a line
+     *
+     * @param b The byte to check
+     * @return boolean Whether the byte is '\n' or '\r'
+     */
+    private static boolean isLineSeparator(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    /**
+     * Checks if the rest of the current line, with its line separator, is already buffered
+     *
+     * @return boolean Whether a whole line can be read without waiting for the input
+     */
+    public boolean hasLine() {
+        int i = position;
+        while (i < limit && buffer[i] != '\n' && buffer[i] != '\r')
+            i++;
+        return i < limit;
+    }
+
+    /**
+     * Reads the next token, skipping the whitespace before it, like Scanner.next()
+     *
+     * @throws NoSuchElementException if there are no more tokens
+     */
+    public void next() {
+        skipWhitespace();
+        tokenStart = position;
+        while (hasByte() && !isWhitespace(buffer[position]))
+            position++;
+        tokenLength = position - tokenStart;
+        if (tokenLength == 0)
+            throw new NoSuchElementException();
+    }
+
+    /**
+     * Reads the next token and returns the position of the keyword it is equal to,
+     * without creating a String
+     *
+     * @param keywords array of keywords, each one as bytes
+     * @return int The position of the keyword in keywords, or NO_MATCH if the token is none of them
+     * @throws NoSuchElementException if there are no more tokens
+     * @pre keywords != null
+     */
+    public int nextKeyword(byte[][] keywords) {
+        next();
+        int match = NO_MATCH;
+        for (int i = 0; match == NO_MATCH && i < keywords.length; i++)
+            if (tokenEquals(keywords[i]))
+                match = i;
+        return match;
+    }
+
+    /**
+     * Reads the next token as an int, parsing it in place, like Scanner.nextInt()
+     *
+     * @return int The value of the token
+     * @throws NoSuchElementException if there are no more tokens
+     * @throws InputMismatchException if the token is not an int
+     */
+    public int nextInt() {
+        next();
+        int i = tokenStart;
+        int end = tokenStart + tokenLength;
+        boolean negative = buffer[i] == '-';
+        if (negative || buffer[i] == '+')
+            i++;
+        if (i == end)
+            throw new InputMismatchException();
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE)
+                throw new InputMismatchException();
+            value = value * 10 + digit;
+        }
+        if (negative)
+            value = -value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw new InputMismatchException();
+        return (int) value;
+    }
+
+    /**
+     * Reads the rest of the current line, like Scanner.nextLine().trim().
+     * The line separator is consumed and the token is the trimmed line.
+     *
+     * @throws NoSuchElementException if the input has ended
+     */
+    public void nextLine() {
+        tokenStart = position;
+        if (!hasByte())
+            throw new NoSuchElementException();
+        while (hasByte() && buffer[position] != '\n' && buffer[position] != '\r')
+            position++;
+        tokenLength = position - tokenStart;
+        if (hasByte() && buffer[position++] == '\r' && hasByte() && buffer[position] == '\n')
+            position++; // \r\n is a single line separator
+        while (tokenLength > 0 && (buffer[tokenStart] & 0xFF) <= ' ') { // trims like String.trim()
+            tokenStart++;
+            tokenLength--;
+        }
+        while (tokenLength > 0 && (buffer[tokenStart + tokenLength - 1] & 0xFF) <= ' ')
+            tokenLength--;
+    }
+
+    /**
+     * Skips the spaces and tabs after the current token and checks if another token
+     * follows on the same line, without reading it
+     *
+     * @return boolean Whether there is a token before the end of the line
+     */
+    public boolean hasNextOnLine() {
+        while (hasByte() && (buffer[position] == ' ' || buffer[position] == '\t'))
+            position++;
+        return hasByte() && buffer[position] != '\n' && buffer[position] != '\r';
+    }
+
+    /**
+     * Skips the spaces and tabs after the current token and checks if the next token
+     * on the same line is an int, as nextInt would read it, without reading it
+     *
+     * @return boolean Whether there is an int before the end of the line
+     */
+    public boolean hasNextIntOnLine() {
+        boolean isInt = hasNextOnLine();
+        int offset = 0; // from position, which fill may move
+        if (isInt && (buffer[position] == '-' || buffer[position] == '+'))
+            offset++;
+        long value = 0;
+        int digits = 0;
+        while (isInt && (position + offset < limit || fill()) && !isWhitespace(buffer[position + offset])) {
+            int digit = buffer[position + offset++] - '0';
+            isInt = digit >= 0 && digit <= 9 && value <= Integer.MAX_VALUE;
+            value = value * 10 + digit;
+            digits++;
+        }
+        return isInt && digits > 0
+                && (buffer[position] == '-' ? -value >= Integer.MIN_VALUE : value <= Integer.MAX_VALUE);
+    }
+
+    /**
+     * Checks if the next token was already read from the input, so that it can be
+     * read without waiting for the input.
+     * Skips the buffered whitespace, so it must only be called before next().
+     *
+     * @return boolean Whether there is a buffered token
+     */
+    public boolean hasBufferedInput() {
+        while (position < limit && isWhitespace(buffer[position]))
+            position++;
+        return position < limit;
+    }
+
+    /**
+     * Returns the current token as a String.
+     * Allocates, so it is meant for the setup of the game, not for each command.
+     *
+     * @return String The current token
+     */
+    public String tokenString() {
+        return new String(buffer, tokenStart, tokenLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * This method returns the buffer that holds the current token.
+     * Only valid until the next read.
+     *
+     * @return byte[] The buffer
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * This method returns the position of the current token in the buffer
+     *
+     * @return int The position of the first byte of the token
+     */
+    public int tokenStart() {
+        return tokenStart;
+    }
+
+    /**
+     * This method returns the length of the current token in bytes
+     *
+     * @return int The length of the token
+     */
+    public int tokenLength() {
+        return tokenLength;
+    }
+
+    /**
+     * Checks if the current token is equal to the given bytes
+     *
+     * @param bytes The bytes to compare with
+     * @return boolean Whether the token is equal to the bytes
+     * @pre bytes != null
+     */
+    private boolean tokenEquals(byte[] bytes) {
+        boolean equals = bytes.length == tokenLength;
+        for (int i = 0; equals && i < tokenLength; i++)
+            equals = buffer[tokenStart + i] == bytes[i];
+        return equals;
+    }
+
+    /**
+     * Skips the whitespace before the next token
+     */
+    private void skipWhitespace() {
+        tokenStart = position; // nothing needs to be kept
+        while (hasByte() && isWhitespace(buffer[position]))
+            tokenStart = ++position;
+    }
+
+    /**
+     * Checks if there is a byte to read, refilling the buffer if needed
+     *
+     * @return boolean Whether there is a byte at position
+     */
+    private boolean hasByte() {
+        return position < limit || fill();
+    }
+
+    /**
+     * Reads more bytes from the input into the buffer.
+     * The bytes of the current token are moved to the start of the buffer, which
+     * only grows if the token fills it.
+     *
+     * @return boolean Whether any byte was read
+     */
+    private boolean fill() {
+        if (in == null) // a fed reader only has what was fed
+            return false;
+        int keep = limit - tokenStart;
+        if (tokenStart > 0) {
+            System.arraycopy(buffer, tokenStart, buffer, 0, keep);
+            position -= tokenStart;
+            tokenStart = 0;
+            limit = keep;
+        } else if (limit == buffer.length) { // the token fills the buffer, doubles its size
+            byte[] aux = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, aux, 0, limit);
+            buffer = aux;
+        }
+        try {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read > 0)
+                limit += read;
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks if the given byte is whitespace, as the separators of Scanner
+     *
+     * @param b The byte to check
+     * @return boolean Whether the byte is whitespace
+     */
+    public static boolean isWhitespace(byte b) {
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F);
+    }
+}
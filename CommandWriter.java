@@ -0,0 +1,174 @@
+/**
+ * CommandWriter class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+public class CommandWriter {
+    // constants of CommandWriter Class
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    private static final byte NEWLINE = '\n';
+    // variables of CommandWriter Class
+    private final OutputStream out;
+    private byte[] buffer;
+    private int count;
+
+    /**
+     * Constructor for CommandWriter
+     * Creates a new CommandWriter that collects the output in a reusable buffer
+     * and only writes it to the given output when flushed.
+     *
+     * @param out The output where the buffer is written
+     * @pre out != null
+     */
+    public CommandWriter(OutputStream out) {
+        this.out = out;
+        buffer = new byte[INITIAL_BUFFER_SIZE];
+        count = 0;
+    }
+
+    /**
+     * Writes the given text, encoded in UTF-8, without creating any object
+     *
+     * @param text The text to write
+     * @pre text != null
+     */
+    public void print(String text) {
+        ensureCapacity(text.length() * 3); // at most 3 bytes per char of the text
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80)
+                buffer[count++] = (byte) c;
+            else if (c < 0x800) {
+                buffer[count++] = (byte) (0xC0 | (c >> 6));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int code = Character.toCodePoint(c, text.charAt(++i)); // 4 bytes for both chars
+                buffer[count++] = (byte) (0xF0 | (code >> 18));
+                buffer[count++] = (byte) (0x80 | ((code >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((code >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (code & 0x3F));
+            } else if (Character.isSurrogate(c))
+                buffer[count++] = '?'; // unpaired surrogate, as String.getBytes does
+            else {
+                buffer[count++] = (byte) (0xE0 | (c >> 12));
+                buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Writes the given int in decimal, without creating any object
+     *
+     * @param value The value to write
+     */
+    public void print(int value) {
+        print((long) value); // a long, so that Integer.MIN_VALUE can be negated
+    }
+
+    /**
+     * Writes the given long in decimal, without creating any object
+     *
+     * @param value The value to write
+     * @pre value != Long.MIN_VALUE
+     */
+    public void print(long value) {
+        ensureCapacity(20); // "-9223372036854775807"
+        long v = value;
+        if (v < 0) {
+            buffer[count++] = '-';
+            v = -v;
+        }
+        int end = count + digits(v);
+        for (int i = end - 1; i >= count; i--) {
+            buffer[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        count = end;
+    }
+
+    /**
+     * Writes the given text followed by a new line
+     *
+     * @param text The text to write
+     * @pre text != null
+     */
+    public void println(String text) {
+        print(text);
+        newLine();
+    }
+
+    /**
+     * Writes a new line
+     */
+    public void newLine() {
+        ensureCapacity(1);
+        buffer[count++] = NEWLINE;
+    }
+
+    /**
+     * Writes the given bytes, which are already encoded
+     *
+     * @param bytes  The array that holds the bytes
+     * @param offset The position of the first byte
+     * @param length The number of bytes
+     * @pre bytes != null && offset >= 0 && length >= 0 && offset + length <= bytes.length
+     */
+    public void write(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, count, length);
+        count += length;
+    }
+
+    /**
+     * Writes everything in the buffer to the output, in a single write, and empties the buffer
+     */
+    public void flush() {
+        try {
+            out.write(buffer, 0, count);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        count = 0;
+    }
+
+    /**
+     * Makes sure the buffer has room for the given number of bytes, doubling its size if needed
+     *
+     * @param length The number of bytes to be written
+     * @pre length >= 0
+     */
+    private void ensureCapacity(int length) {
+        if (count + length > buffer.length) {
+            byte[] aux = new byte[Math.max(buffer.length * 2, count + length)];
+            System.arraycopy(buffer, 0, aux, 0, count);
+            buffer = aux;
+        }
+    }
+
+    /**
+     * Returns the number of decimal digits of the given value
+     *
+     * @param value The value
+     * @return int The number of digits
+     * @pre value >= 0
+     */
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * FleetCatalog interface for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+public interface FleetCatalog {
+
+    /**
+     * This method returns the number of fleets in the catalog
+     *
+     * @return int Number of fleets
+     */
+    int size();
+
+    /**
+     * Returns the fleet with the given index.
+     * Fleets are only built when they are first asked for, and are then kept.
+     * Safe to call from the threads of several games at once.
+     *
+     * @param index int that represents the index of the fleet, starting at 0
+     * @return AvailableFleet The fleet, or null if there is no fleet with that index
+     * @pre index >= 0
+     */
+    AvailableFleet getFleet(int index);
+}
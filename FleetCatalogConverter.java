@@ -0,0 +1,29 @@
+/**
+ * FleetCatalogConverter class for the Project 2 - Battleship game.
+ * Converts a text catalog of fleets (fleets.txt) into a binary catalog (fleets.bin),
+ * which Main loads instead of the text catalog while it is newer than the text catalog.
+ *
+ * Usage: java FleetCatalogConverter [text file] [binary file]
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+
+public class FleetCatalogConverter {
+    // constants of FleetCatalogConverter Class
+    private static final String DEFAULT_TEXT_FILE = "fleets.txt";
+    private static final String DEFAULT_BINARY_FILE = "fleets.bin";
+    private static final String DONE_MESSAGE = "%d fleets written to %s\n";
+
+    public static void main(String[] args) throws IOException {
+        String textFile = args.length > 0 ? args[0] : DEFAULT_TEXT_FILE;
+        String binaryFile = args.length > 1 ? args[1] : DEFAULT_BINARY_FILE;
+        TextFleetCatalog source = new TextFleetCatalog(textFile);
+        BinaryFleetCatalog.write(source, binaryFile);
+        System.out.printf(DONE_MESSAGE, source.size(), binaryFile);
+    }
+}
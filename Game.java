@@ -6,15 +6,38 @@
  *
  */
 
+// imports
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public class Game {
     // constants of Game Class
     private static final int SCORE_MULTIPLIER = 100;
     private static final int SCORE_DIVISOR = 30;
+    private static final int INITIAL_HISTORY = 64;
     // variables of Game Class
-    private Player currentPlayer;
-    private Player[] players;
+    private int current; // position of the current player in players
+    private final PlayerStore players; // every player, in the order they were added
+    private final PlayerIndex playerIndex; // position of each player in players, by name
+    private final Leaderboard leaderboard; // players ordered by score and name
+    // circular ring of the non-eliminated players, in the order of the array of players
+    private final int[] nextAlive;
+    private final int[] previousAlive;
+    private int survivingPlayers;
     private int playerCount;
     private boolean gameOver;
+    // history of the turns played since the game started or was restored, to undo them
+    private int[] turnShooters;
+    private int[] turnTargets;
+    private int[] turnScores; // score the shooter gained in the turn
+    private boolean[] turnEliminations; // whether the target was eliminated in the turn
+    private int turns;
+    private int[] turnVersions; // version of the game after the turn, increasing
+    private int lastVersion; // last version given to a turn, never given again
+    private int baseVersion; // version of the game when the history starts
+    private GameEventBus events; // where every shot is published, or null
 
     /**
      * Constructor for Game.
@@ -24,75 +47,85 @@ public class Game {
      * @pre nPlayers > 1 && nPlayers != null
      */
     public Game(int nPlayers) {
-        players = new Player[nPlayers];
+        players = new PlayerStore(nPlayers);
+        playerIndex = new PlayerIndex(nPlayers);
+        leaderboard = new Leaderboard(players);
+        nextAlive = new int[nPlayers];
+        previousAlive = new int[nPlayers];
+        survivingPlayers = 0;
         gameOver = false;
         playerCount = 0;
+        turnShooters = new int[INITIAL_HISTORY];
+        turnTargets = new int[INITIAL_HISTORY];
+        turnScores = new int[INITIAL_HISTORY];
+        turnEliminations = new boolean[INITIAL_HISTORY];
+        turns = 0;
+        turnVersions = new int[INITIAL_HISTORY];
+        lastVersion = 0;
+        baseVersion = 0;
+        events = null;
+    }
+
+    /**
+     * Publishes every shot taken from now on to the given bus, so that spectators
+     * can follow the game.
+     *
+     * @param events the bus, or null to stop publishing
+     */
+    public void setEventBus(GameEventBus events) {
+        this.events = events;
     }
 
     /**
      * Returns an iterator for the non-eliminated players in the game.
+     * The iterator is a live view of the players, nothing is copied.
      * 
      * @return PlayerList The iterator for the players.
      * @pre players != null
      */
     public PlayerList PlayerIterator() {
-        Player[] aux = new Player[players.length];
-        System.arraycopy(players, 0, aux, 0, players.length);
-        return new PlayerList(aux);
+        return new PlayerList(players);
     }
 
     /**
-     * Returns an iterator for the players ordered by score in descending order.
-     * If two players have the same score, they are ordered by name in ascending order.
-     * 
-     * @return OrderedPlayerList The iterator for the players ordered by
-     *         score.
+     * Returns a stream of the non-eliminated players in the game, in the order they
+     * were added, that can be made parallel.
+     * The stream is a live view of the players, nothing is copied, so the game must
+     * not change while it runs.
+     *
+     * @return Stream The stream of the players.
      * @pre players != null
      */
-    public OrderedPlayerList OrderedPlayerIterator() {
-        Player[] aux = new Player[players.length];
-        System.arraycopy(players, 0, aux, 0, players.length);
-
-        sortScores(aux); // sort by score
-        sortNameSameScore(aux); // sort by name if same score
-
-        return new OrderedPlayerList(aux);
+    public Stream<Player> survivors() {
+        return StreamSupport.stream(new SurvivorSpliterator(players, 0, playerCount), false);
     }
 
     /**
-     * Sorts an array of Player objects in descending order based on their scores.
+     * Returns an iterator for the players ordered by score in descending order.
+     * If two players have the same score, they are ordered by name in ascending order.
+     * The ordering is kept by the leaderboard as scores change, so nothing is sorted here.
      * 
-     * @param aux The parameter "aux" is an array of Player objects. It is used as a
-     *            temporary array to store the players while sorting.
-     * @pre aux != null
+     * @return OrderedPlayerList The iterator for the players ordered by
+     *         score.
+     * @pre leaderboard != null
      */
-    private void sortScores(Player[] aux) {
-        for (int i = 0; i < aux.length; i++)
-            for (int j = i + 1; j < aux.length; j++)
-                if (aux[i].getScore() < aux[j].getScore()) {
-                    Player temp = aux[i];
-                    aux[i] = aux[j];
-                    aux[j] = temp;
-                }
+    public OrderedPlayerList OrderedPlayerIterator() {
+        return leaderboard.iterator();
     }
 
     /**
-     * Sorts an array of Player objects if two players
-     * have the same score, it sorts them based on their names in ascending order.
+     * Returns an iterator for the given number of players with the highest scores,
+     * ordered as OrderedPlayerIterator.
+     * The leaderboard is already ordered, so this costs O(count), whatever the
+     * number of players.
      *
-     * @param aux The parameter "aux" is an array of Player objects. It is used as a
-     *            temporary array to store the players while sorting.
-     * @pre aux != null
+     * @param count int that represents the number of players
+     * @return OrderedPlayerList The iterator for the first count players, or every
+     *         player if there are fewer.
+     * @pre count >= 0 && leaderboard != null
      */
-    private void sortNameSameScore(Player[] aux) {
-        for (int i = 0; i < aux.length; i++)
-            for (int j = i + 1; j < aux.length; j++)
-                if (aux[i].getScore() == aux[j].getScore() &&
-                        aux[i].getName().compareTo(aux[j].getName()) > 0) {
-                    Player temp = aux[i];
-                    aux[i] = aux[j];
-                    aux[j] = temp;
-                }
+    public OrderedPlayerList topScores(int count) {
+        return leaderboard.iterator(count);
     }
 
     /**
@@ -101,46 +134,166 @@ public class Game {
      * @param name  The name of the player.
      * @param fleet The fleet of the player.
      * @pre name != null && fleet != null && !hasPlayer(name) && players != null &&
-     *      playerCount < players.length.
+     *      playerCount < getMaxPlayers().
      */
     public void addPlayer(String name, AvailableFleet fleet) {
-        players[playerCount++] = new Player(name, fleet.getBoard());
+        playerIndex.put(name, playerCount);
+        players.add(name, fleet);
+        leaderboard.add(playerCount);
+        link(playerCount++);
     }
 
     /**
-     * Sets the current player to the first player in the array of players.
-     * Used to start the game.
-     * 
+     * Checks if every player of the game was already added
+     *
+     * @return boolean Whether the game has all its players
      * @pre players != null
      */
-    public void setCurrentPlayer() {
-        currentPlayer = players[0];
+    public boolean isFull() {
+        return playerCount == players.capacity();
+    }
+
+    /**
+     * This method returns the number of players the game was created for
+     *
+     * @return int Number of players of the game
+     * @pre players != null
+     */
+    public int getMaxPlayers() {
+        return players.capacity();
+    }
+
+    /**
+     * This method returns the number of players already added
+     *
+     * @return int Number of players added
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Returns the player in the given position, in the order the players were added.
+     *
+     * @param position The position of the player.
+     * @return Player The player.
+     * @pre position >= 0 && position < getPlayerCount()
+     */
+    public Player getPlayerAt(int position) {
+        return players.get(position);
+    }
+
+    /**
+     * Restores the score, the elimination and the hit state of the player in the
+     * given position, as saved by a snapshot.
+     *
+     * @param position   The position of the player.
+     * @param score      The score of the player.
+     * @param eliminated Whether the player was eliminated.
+     * @param sunkShips  The hit state of the player, as written by Player.writeSunkShips.
+     * @param sinkTurns  The turns its ships were hit in, as written by Player.writeSinkTurns.
+     * @pre position >= 0 && position < getPlayerCount() && the player was just added
+     *      && (!eliminated || every player was already added)
+     */
+    public void restorePlayer(int position, int score, boolean eliminated, LongBuffer sunkShips,
+            IntBuffer sinkTurns) {
+        players.restoreSunkShips(position, sunkShips, sinkTurns);
+        leaderboard.updateScore(position, score - players.score(position));
+        if (eliminated)
+            eliminate(position);
+    }
+
+    /**
+     * Restores the current player, whether the game is over, the number of turns
+     * played and the versions of the game, as saved by a snapshot. The history
+     * starts there: turns played before can not be undone, and the only versions
+     * before it that are still valid are 0 and the version of the snapshot.
+     *
+     * @param position    The position of the current player.
+     * @param over        Whether the game is over.
+     * @param turn        The number of turns played, as given by getTurn.
+     * @param version     The version of the game, as given by getVersion.
+     * @param lastVersion The last version given to a turn, as given by getLastVersion.
+     * @pre isFull() && every player was restored && no turn was played yet
+     *      && 0 <= version && version <= lastVersion
+     */
+    public void restoreTurn(int position, boolean over, int turn, int version, int lastVersion) {
+        current = position;
+        gameOver = over;
+        players.restoreTurn(turn);
+        baseVersion = version;
+        this.lastVersion = lastVersion;
+    }
+
+    /**
+     * Links the player in the given position at the end of the ring of
+     * non-eliminated players, just before the first player.
+     *
+     * @param position The position of the player in the array of players.
+     * @pre position >= 0 && position < getMaxPlayers() && nextAlive != null && previousAlive != null
+     */
+    private void link(int position) {
+        if (survivingPlayers == 0) { // the first player is a ring on its own
+            nextAlive[position] = position;
+            previousAlive[position] = position;
+        } else {
+            int last = previousAlive[0];
+            nextAlive[last] = position;
+            previousAlive[position] = last;
+            nextAlive[position] = 0;
+            previousAlive[0] = position;
+        }
+        survivingPlayers++;
+    }
+
+    /**
+     * Eliminates the player in the given position and unlinks it from the ring
+     * of non-eliminated players.
+     *
+     * @param position The position of the player in the array of players.
+     * @pre position >= 0 && position < getPlayerCount() && !players.isEliminated(position)
+     */
+    private void eliminate(int position) {
+        players.eliminate(position);
+        nextAlive[previousAlive[position]] = nextAlive[position];
+        previousAlive[nextAlive[position]] = previousAlive[position];
+        survivingPlayers--;
+    }
+
+    /**
+     * Brings back the player in the given position, eliminated in the last turn,
+     * and links it back into the ring of non-eliminated players. Eliminating
+     * unlinked it without changing its own links, so they still point to its
+     * neighbours while turns are undone in the reverse order they were played.
+     *
+     * @param position The position of the player in the array of players.
+     * @pre position was the last player eliminated
+     */
+    private void relink(int position) {
+        players.revive(position);
+        nextAlive[previousAlive[position]] = position;
+        previousAlive[nextAlive[position]] = position;
+        survivingPlayers++;
     }
 
     /**
-     * Returns the index of the current player in the array of players.
+     * Sets the current player to the first player in the array of players.
+     * Used to start the game.
      * 
-     * @return int The index of the current player in the array of players.
-     * @pre currentPlayer != null && players != null
+     * @pre players != null
      */
-    private int getCurrentIndex() {
-        int index = 0;
-        while (players[index] != currentPlayer)
-            index++;
-        return index;
+    public void setCurrentPlayer() {
+        current = 0;
     }
 
     /**
-     * Sets the current player to the next non-eliminated player in the players array.
-     * Recursive method.
+     * Sets the current player to the next non-eliminated player in the players array,
+     * which is the next one in the ring of non-eliminated players.
      * 
-     * @pre currentPlayer != null && players != null && getCurrentIndex() != null
+     * @pre nextAlive != null && !players.isEliminated(current)
      */
     public void nextPlayerSwitch() {
-        currentPlayer = players[(getCurrentIndex() + 1) % players.length];
-        if (currentPlayer.isEliminated())
-            nextPlayerSwitch(); // recursive call,
-        // if the next player in the array is eliminated, calls the method again
+        current = nextAlive[current];
     }
 
     /**
@@ -149,13 +302,25 @@ public class Game {
      * 
      * @param name The name to check.
      * @return boolean Whether the player exists.
-     * @pre name != null && players != null
+     * @pre name != null && playerIndex != null
      */
     public boolean hasPlayer(String name) {
-        int i = 0;
-        while (i < players.length && !players[i].hasName(name))
-            i++;
-        return (i < players.length); // if i < players.length, the player exists
+        return playerIndex.get(name) != PlayerIndex.NOT_FOUND;
+    }
+
+    /**
+     * Returns the name of the player whose name, in UTF-8, is equal to the given bytes.
+     * Used to resolve names read as bytes without creating a String for them.
+     *
+     * @param buffer The array that holds the name.
+     * @param offset The position of the first byte of the name.
+     * @param length The length of the name in bytes.
+     * @return String The name of the player, or null if the player does not exist.
+     * @pre buffer != null && playerIndex != null
+     */
+    public String findName(byte[] buffer, int offset, int length) {
+        int position = playerIndex.get(buffer, offset, length);
+        return position == PlayerIndex.NOT_FOUND ? null : players.name(position);
     }
 
     /**
@@ -185,10 +350,32 @@ public class Game {
      * Returns the name of the current player.
      * 
      * @return String The name of the current player.
-     * @pre currentPlayer != null
+     * @pre players != null
      */
     public String getNameOfCurrent() {
-        return currentPlayer.getName();
+        return players.name(current);
+    }
+
+    /**
+     * Returns the position of the current player, in the order the players were added.
+     *
+     * @return int The position of the current player.
+     * @pre players != null
+     */
+    public int getCurrentPosition() {
+        return current;
+    }
+
+    /**
+     * Returns the position of the player with the given name, in the order the
+     * players were added.
+     *
+     * @param name The name of the player.
+     * @return int The position of the player.
+     * @pre name != null && hasPlayer(name)
+     */
+    public int getPositionOf(String name) {
+        return playerIndex.get(name);
     }
 
     /**
@@ -199,7 +386,7 @@ public class Game {
      * @pre name != null && hasPlayer(name)
      */
     public int getScoreOf(String name) {
-        return getPlayer(name).getScore();
+        return players.score(playerIndex.get(name));
     }
 
     /**
@@ -207,25 +394,11 @@ public class Game {
      * 
      * @param name The name of the player to return.
      * @return Player The player with the given name.
-     * @pre name != null && hasPlayer(name) && players != null
+     * @pre name != null && hasPlayer(name) && players != null && playerIndex != null
      */
     public Player getPlayer(String name) {
-        int i = 0;
-        while (i < players.length && !players[i].hasName(name))
-            i++;
-        return players[i];
-        // players[i] is never out of bounds because of hasPlayer(name) in the pre-condition
-    }
-
-    /**
-     * Returns the board of the player with the given name.
-     * 
-     * @param name The name of the player.
-     * @return char[][] The board of the player.
-     * @pre name != null && hasPlayer(name)
-     */
-    public char[][] getBoardOf(String name) {
-        return getPlayer(name).getFleet();
+        return players.get(playerIndex.get(name));
+        // the position is never NOT_FOUND because of hasPlayer(name) in the pre-condition
     }
 
     /**
@@ -235,32 +408,305 @@ public class Game {
      * @param row  int that represents the row of the position to shoot at.
      * @param col  int that represents the col of the position to shoot at.
      * @param name String that represents the name of the player to shoot at.
+     * @return int The length of the ship that was hit, its negative length if it
+     *             was already hit, or 0 if the position is empty.
      * @pre position != null && name != null && hasPlayer(name) && players != null
      */
-    public void shoot(int row, int col, String name) {
-        Player otherPlayer = getPlayer(name);
-        int length = otherPlayer.takeHit(row, col);
+    public int shoot(int row, int col, String name) {
+        return shootAt(row, col, playerIndex.get(name));
+    }
+
+    /**
+     * Shoots at the given position of the player in the given position, like shoot,
+     * without looking up its name.
+     *
+     * @param row    int that represents the row of the position to shoot at.
+     * @param col    int that represents the col of the position to shoot at.
+     * @param target int that represents the position of the player to shoot at.
+     * @return int The length of the ship that was hit, its negative length if it
+     *             was already hit, or 0 if the position is empty.
+     * @pre target >= 0 && target < getPlayerCount() && target != getCurrentPosition()
+     *      && !getPlayerAt(target).isEliminated() && !isOver()
+     */
+    public int shootAt(int row, int col, int target) {
+        int scoreBefore = players.score(current);
+        int length = players.takeHit(target, row, col);
         if (length > 0) // if hit, add score
-            currentPlayer.updateScore(length * SCORE_MULTIPLIER);
+            leaderboard.updateScore(current, length * SCORE_MULTIPLIER);
         else // already hit, subtract score
-            currentPlayer.updateScore(length * SCORE_DIVISOR);
+            leaderboard.updateScore(current, length * SCORE_DIVISOR);
+        endTurn(target, scoreBefore);
+        if (events != null)
+            publish(row, col, target, length, turnScores[turns - 1], true);
+        return length;
+    }
+
+    /**
+     * Shoots a batch of shots at the player in the given position, all in the turn
+     * of the current player. The shots are taken in order, as many shots would be,
+     * but the score of the current player is updated once, with the sum of their
+     * scores, and the elimination of the target, the end of the game and the switch
+     * to the next player are checked once, after the last shot.
+     *
+     * @param rows    the rows of the shots
+     * @param cols    the columns of the shots
+     * @param count   int that represents the number of shots
+     * @param target  int that represents the position of the player to shoot at.
+     * @param lengths array where the result of each shot, as returned by shootAt, is written
+     * @pre count > 0 && rows, cols and lengths have at least count elements
+     *      && every position is valid && target != getCurrentPosition()
+     *      && !getPlayerAt(target).isEliminated() && !isOver()
+     */
+    public void salvoAt(int[] rows, int[] cols, int count, int target, int[] lengths) {
+        int scoreBefore = players.score(current);
+        players.takeHits(target, rows, cols, count, lengths);
+        int score = 0;
+        for (int i = 0; i < count; i++)
+            score += lengths[i] * (lengths[i] > 0 ? SCORE_MULTIPLIER : SCORE_DIVISOR);
+        leaderboard.updateScore(current, score);
+        endTurn(target, scoreBefore);
+        if (events != null) {
+            int remaining = turnScores[turns - 1];
+            for (int i = 0; i < count - 1; i++) {
+                int shotScore = lengths[i] * (lengths[i] > 0 ? SCORE_MULTIPLIER : SCORE_DIVISOR);
+                publish(rows[i], cols[i], target, lengths[i], shotScore, false);
+                remaining -= shotScore;
+            }
+            publish(rows[count - 1], cols[count - 1], target, lengths[count - 1], remaining, true);
+        }
+    }
 
-        if (otherPlayer.shipsSunk())
-            otherPlayer.eliminatePlayer(); // eliminate player if all ships sunk
+    /**
+     * Publishes a shot of the last turn to the bus of events.
+     * The last shot of the turn carries its elimination and the end of the game, and
+     * its score includes the bonus of the last survivor.
+     *
+     * @param row    int that represents the row of the shot.
+     * @param col    int that represents the col of the shot.
+     * @param target int that represents the position of the player shot at.
+     * @param length int that represents the result of the shot, as returned by shootAt.
+     * @param score  int that represents the score the shooter gained with the shot.
+     * @param last   boolean that represents whether it is the last shot of the turn.
+     * @pre events != null && turns > 0
+     */
+    private void publish(int row, int col, int target, int length, int score, boolean last) {
+        int ship = GameEventBus.NO_SHIP;
+        if (length != 0)
+            ship = players.fleet(target).shipAt(row - 1, col - 1);
+        int flags = 0;
+        if (last && turnEliminations[turns - 1])
+            flags |= GameEventBus.ELIMINATED;
+        if (last && gameOver)
+            flags |= GameEventBus.GAME_OVER;
+        events.publish(players.turn(), turnShooters[turns - 1], target, row, col, length, ship, score, flags);
+    }
 
-        int survivingPlayers = 0; // check number of surviving players
-        for (int i = 0; i < players.length; i++)
-            if (!players[i].isEliminated())
-                survivingPlayers++;
+    /**
+     * Ends the turn of the current player after it shot at the player in the given
+     * position: eliminates the target if all its ships are sunk, ends the game if
+     * only one player is left, records the turn in the history and switches to the
+     * next player.
+     *
+     * @param target      int that represents the position of the player shot at.
+     * @param scoreBefore int that represents the score of the current player before the turn.
+     * @pre target >= 0 && target < getPlayerCount() && !isOver()
+     */
+    private void endTurn(int target, int scoreBefore) {
+        boolean eliminated = players.shipsSunk(target);
+        if (eliminated)
+            eliminate(target); // eliminate player if all ships sunk
 
         if (survivingPlayers == 1) { // if only one player is left, the game is over
-            currentPlayer.updateScore(currentPlayer.getScore()); // duplicate score of last survivor (current player)
+            leaderboard.updateScore(current, players.score(current)); // duplicate score of last survivor (current player)
             gameOver = true;
         }
 
+        record(target, players.score(current) - scoreBefore, eliminated);
+        players.endTurn();
         nextPlayerSwitch(); // switch player
     }
 
+    /**
+     * Records the turn of the current player in the history, doubling it if needed.
+     *
+     * @param target     int that represents the position of the player shot at.
+     * @param score      int that represents the score the current player gained.
+     * @param eliminated boolean that represents whether the target was eliminated.
+     */
+    private void record(int target, int score, boolean eliminated) {
+        if (turns == turnShooters.length) {
+            int[] shooters = new int[turns * 2];
+            int[] targets = new int[turns * 2];
+            int[] scores = new int[turns * 2];
+            boolean[] eliminations = new boolean[turns * 2];
+            int[] versions = new int[turns * 2];
+            System.arraycopy(turnShooters, 0, shooters, 0, turns);
+            System.arraycopy(turnTargets, 0, targets, 0, turns);
+            System.arraycopy(turnScores, 0, scores, 0, turns);
+            System.arraycopy(turnEliminations, 0, eliminations, 0, turns);
+            System.arraycopy(turnVersions, 0, versions, 0, turns);
+            turnShooters = shooters;
+            turnTargets = targets;
+            turnScores = scores;
+            turnEliminations = eliminations;
+            turnVersions = versions;
+        }
+        turnShooters[turns] = current;
+        turnVersions[turns] = ++lastVersion;
+        turnTargets[turns] = target;
+        turnScores[turns] = score;
+        turnEliminations[turns++] = eliminated;
+    }
+
+    /**
+     * Returns the number of turns played since the game started, the turns played
+     * before it was restored from a snapshot included.
+     *
+     * @return int The number of turns.
+     */
+    public int getTurn() {
+        return players.turn();
+    }
+
+    /**
+     * Returns the board of the player with the given name as it was after the
+     * given number of turns, rendered as Player.renderFleet does.
+     * No board is copied per turn: every ship keeps the turn it was hit in.
+     *
+     * @param name The name of the player.
+     * @param turn int that represents the number of turns, at most getTurn().
+     * @return byte[] The board, one byte per cell.
+     * @pre name != null && hasPlayer(name) && turn >= 0
+     */
+    public byte[] boardOf(String name, int turn) {
+        return players.renderFleetAt(playerIndex.get(name), turn);
+    }
+
+    /**
+     * Returns the version of the game, which names the state of the game after the
+     * last turn. Every turn played gets a new version, greater than every version
+     * given before, so a turn played again after an undo does not get the version
+     * of the turn it replaces. The game starts at version 0, and while no turn is
+     * undone the version is the number of turns.
+     *
+     * @return int The version.
+     */
+    public int getVersion() {
+        return turns == 0 ? baseVersion : turnVersions[turns - 1];
+    }
+
+    /**
+     * Returns the last version given to a turn, which is never given again, even
+     * to a turn played after that one was undone.
+     *
+     * @return int The version, 0 if no turn was played.
+     */
+    public int getLastVersion() {
+        return lastVersion;
+    }
+
+    /**
+     * Returns the number of turns played when the game had the given version, if
+     * that version is still in the history: versions of turns that were undone or
+     * not played yet are not, and neither are the versions between 0 and the one
+     * the game was restored at, since the snapshot does not keep them.
+     *
+     * @param version int that represents the version.
+     * @return int The number of turns, as counted by getTurn, or -1 if the version
+     *             is not in the history.
+     */
+    private int turnOfVersion(int version) {
+        int low = 0;
+        int high = turns;
+        while (low < high) { // first turn whose version is not below the given one
+            int middle = (low + high) >>> 1;
+            if (turnVersions[middle] < version)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        int firstTurn = players.turn() - turns; // turns played before the history
+        int turn = -1;
+        if (version == 0)
+            turn = 0;
+        else if (version == baseVersion)
+            turn = firstTurn;
+        else if (low < turns && turnVersions[low] == version)
+            turn = firstTurn + low + 1;
+        return turn;
+    }
+
+    /**
+     * Checks if the board of every player at the given version can still be compared
+     * with the current one: the version is in the history of the game, it was not
+     * undone nor replaced.
+     *
+     * @param version int that represents the version, as given by getVersion.
+     * @return boolean Whether the version is valid.
+     */
+    public boolean isValidVersion(int version) {
+        return turnOfVersion(version) >= 0;
+    }
+
+    /**
+     * Returns the cells of the board of the player with the given name that changed
+     * after the given version, as spans of consecutive cells of a row ordered by row
+     * and column. Every cell of a span is now hit, so a client that keeps the board
+     * as it was at that version only has to mark the spans.
+     * Undoing a turn forgets the ships it hit, so the spans are always those of the
+     * current history.
+     *
+     * @param name    The name of the player.
+     * @param version int that represents the version, as given by getVersion.
+     * @return int[] The spans, each as its row, its first column and its length,
+     *               starting at 1.
+     * @pre name != null && hasPlayer(name) && isValidVersion(version)
+     */
+    public int[] fleetChangesSince(String name, int version) {
+        int[] spans = players.changedSince(playerIndex.get(name), turnOfVersion(version));
+        for (int i = 0; i < spans.length; i += 3) { // +1 because the board index's starts at 0
+            spans[i]++;
+            spans[i + 1]++;
+        }
+        return spans;
+    }
+
+    /**
+     * Undoes the last turn: the ships it hit are not hit anymore, the player it
+     * eliminated is linked back into the ring where it was, the score of the player
+     * that shot is restored and that player is the current one again.
+     * Turns before the game was restored from a snapshot can not be undone, and
+     * undoing is not recorded in a journal.
+     *
+     * @return boolean Whether there was a turn to undo.
+     */
+    public boolean undo() {
+        boolean undone = turns > 0;
+        if (undone) {
+            turns--;
+            int target = turnTargets[turns];
+            if (turnEliminations[turns])
+                relink(target);
+            gameOver = false; // only the last turn can end the game
+            leaderboard.updateScore(turnShooters[turns], -turnScores[turns]);
+            players.undoTurn(target);
+            current = turnShooters[turns];
+        }
+        return undone;
+    }
+
+    /**
+     * Undoes turns until only the given number of turns was played, or until no
+     * turn of the history is left.
+     *
+     * @param turn int that represents the number of turns to keep, as counted by getTurn.
+     * @pre turn >= 0
+     */
+    public void rewind(int turn) {
+        while (turns > 0 && players.turn() > turn)
+            undo();
+    }
+
     /**
      * Returns the last survivor of the game.
      * 
@@ -268,13 +714,8 @@ public class Game {
      * @pre isOver() && players != null
      */
     private Player lastSurvivor() {
-        Player lastSurvivor = null;
-        for (int i = 0; i < players.length; i++)
-            if (!players[i].isEliminated())
-                lastSurvivor = players[i];
-        // lastSurvivor is never null because of isOver() in the pre-condition
-        // there's always just one player left when the game is over
-        return lastSurvivor;
+        return players.get(current);
+        // when the game is over the current player is the only one left in the ring
     }
 
     /**
@@ -303,14 +744,8 @@ public class Game {
      * @pre players != null
      */
     private Player maxScorePlayer() {
-        Player maxScorePlayer = null;
-        int maxScore = 0;
-        for (int i = 0; i < players.length; i++)
-            if (players[i].getScore() > maxScore) {
-                maxScore = players[i].getScore();
-                maxScorePlayer = players[i];
-            }
-        return maxScorePlayer;
+        int maxScore = players.maxScore(); // a single scan of the column of scores
+        return maxScore > 0 ? players.get(players.firstWithScore(maxScore)) : null;
     }
 
     /**
@@ -320,11 +755,7 @@ public class Game {
      * @pre players != null && maxScorePlayer() != null
      */
     private int playersWithMaxScore() {
-        int count = 0;
-        for (int i = 0; i < players.length; i++)
-            if (players[i].getScore() == maxScorePlayer().getScore())
-                count++;
-        return count;
+        return players.countScore(maxScorePlayer().getScore());
     }
 
     /**
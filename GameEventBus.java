@@ -0,0 +1,231 @@
+/**
+ * GameEventBus class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Ring buffer of the shots of a game, written by the game and read by any number
+ * of GameEventSubscribers, each at its own pace.
+ * Every event has a sequence number; the event with sequence s is kept in slot
+ * s % capacity, as one element of each of the parallel arrays below, which are
+ * allocated once, so publishing an event only writes a few ints.
+ * The game never waits for its subscribers: a subscriber that falls more than
+ * capacity events behind loses the oldest ones, and is told how many it lost.
+ * The cursor is the sequence of the next event to read, and the claim the sequence
+ * of the next event to write. The writer moves the claim past a slot before it
+ * overwrites the slot and publishes the event by moving the cursor past it, so a
+ * reader that reads a slot and then sees that the claim did not reach the slot's
+ * next use knows the slot was not overwritten while it read it. The last capacity
+ * events before the cursor can be read whole while the writer is not writing.
+ */
+public class GameEventBus {
+    // constants of GameEventBus Class
+    public static final int ELIMINATED = 1; // flag of the shot that eliminated its target
+    public static final int GAME_OVER = 2; // flag of the shot that ended the game
+    public static final int NO_SHIP = -1;
+    // variables of GameEventBus Class
+    private final int mask; // capacity - 1
+    private final AtomicLong cursor; // events published
+    private final AtomicLong claim; // events being written or published
+    private final int[] turns; // turn of the shot, as counted by Game.getTurn
+    private final int[] shooters; // positions of the players, as in Game.getPlayerAt
+    private final int[] targets;
+    private final int[] rows;
+    private final int[] cols;
+    private final int[] lengths; // result of the shot, as returned by Game.shootAt
+    private final int[] ships; // id of the ship hit in the fleet of the target, or NO_SHIP
+    private final int[] scores; // score the shooter gained with the shot
+    private final int[] flags;
+
+    /**
+     * Constructor for GameEventBus
+     * Creates a new empty GameEventBus that keeps the given number of events.
+     *
+     * @param capacity int that represents the number of events kept, a power of 2
+     * @pre capacity > 0 && Integer.bitCount(capacity) == 1
+     */
+    public GameEventBus(int capacity) {
+        mask = capacity - 1;
+        cursor = new AtomicLong();
+        claim = new AtomicLong();
+        turns = new int[capacity];
+        shooters = new int[capacity];
+        targets = new int[capacity];
+        rows = new int[capacity];
+        cols = new int[capacity];
+        lengths = new int[capacity];
+        ships = new int[capacity];
+        scores = new int[capacity];
+        flags = new int[capacity];
+    }
+
+    /**
+     * Publishes a shot. Only the game of the bus publishes, from a single thread.
+     *
+     * @param turn    int that represents the turn of the shot
+     * @param shooter int that represents the position of the player that shot
+     * @param target  int that represents the position of the player shot at
+     * @param row     int that represents the row of the shot
+     * @param col     int that represents the column of the shot
+     * @param length  int that represents the result of the shot
+     * @param ship    int that represents the ship hit, or NO_SHIP
+     * @param score   int that represents the score the shooter gained
+     * @param flag    int with the flags of the shot, ELIMINATED and GAME_OVER
+     */
+    public void publish(int turn, int shooter, int target, int row, int col, int length, int ship, int score,
+            int flag) {
+        long sequence = cursor.get();
+        claim.lazySet(sequence + 1);
+        VarHandle.releaseFence(); // readers see the claim of the slot before the slot changes
+        int slot = (int) sequence & mask;
+        turns[slot] = turn;
+        shooters[slot] = shooter;
+        targets[slot] = target;
+        rows[slot] = row;
+        cols[slot] = col;
+        lengths[slot] = length;
+        ships[slot] = ship;
+        scores[slot] = score;
+        flags[slot] = flag;
+        cursor.lazySet(sequence + 1); // publishes the slot
+    }
+
+    /**
+     * Returns a new subscriber that reads the events published from now on
+     *
+     * @return GameEventSubscriber The subscriber
+     */
+    public GameEventSubscriber subscribe() {
+        return new GameEventSubscriber(this, cursor.get());
+    }
+
+    /**
+     * This method returns the sequence of the next event to be published
+     *
+     * @return long The sequence
+     */
+    public long cursor() {
+        return cursor.get();
+    }
+
+    /**
+     * This method returns the number of events the bus keeps
+     *
+     * @return int The capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Checks if the event with the given sequence, already read, was not overwritten
+     * while it was read
+     *
+     * @param sequence long that represents the sequence of the event
+     * @return boolean Whether the event read is whole
+     */
+    public boolean isIntact(long sequence) {
+        VarHandle.acquireFence(); // the slot was read before the claim is
+        return claim.get() <= sequence + mask + 1;
+    }
+
+    /**
+     * This method returns the turn of the event with the given sequence
+     *
+     * @param sequence long that represents the sequence of the event
+     * @return int The turn
+     */
+    public int turn(long sequence) {
+        return turns[(int) sequence & mask];
+    }
+
+    /**
+     * This method returns the shooter of the event with the given sequence
+     *
+     * @param sequence long that represents the sequence of the event
+     * @return int The position of the player that shot
+     */
+    public int shooter(long sequence) {
+        return shooters[(int) sequence & mask];
+    }
+
+    /**
+     * This method returns the target of the event with the given sequence
+     *
+     * @param sequence long that represents the sequence of the event
+     * @return int The position of the player shot at
+     */
+    public int target(long sequence) {
+        return targets[(int) sequence & mask];
+    }
+
+    /**
+     * This method returns the row of the event with the given sequence
+     *
+     * @param sequence long that represents the sequence of the event
+     * @return int The row of the shot
+     */
+    public int row(long sequence) {
+        return rows[(int) sequence & mask];
+    }
+
+    /**
+     * This method returns the column of the event with the given sequence
+     *
+     * @param sequence long that represents the sequence of the event
+     * @return int The column of the shot
+     */
+    public int col(long sequence) {
+        return cols[(int) sequence & mask];
+    }
+
+    /**
+     * This method returns the result of the event with the given sequence
+     *
+     * @param sequence long that represents the sequence of the event
+     * @return int The length of the ship hit, its negative length if it was already
+     *             hit, or 0 if the shot missed
+     */
+    public int length(long sequence) {
+        return lengths[(int) sequence & mask];
+    }
+
+    /**
+     * This method returns the ship hit by the event with the given sequence.
+     * If the length is positive, its cells were sunk by the shot.
+     *
+     * @param sequence long that represents the sequence of the event
+     * @return int The id of the ship in the fleet of the target, or NO_SHIP
+     */
+    public int ship(long sequence) {
+        return ships[(int) sequence & mask];
+    }
+
+    /**
+     * This method returns the score the shooter gained with the event with the
+     * given sequence, including the bonus of the last survivor
+     *
+     * @param sequence long that represents the sequence of the event
+     * @return int The score gained, negative if it lost score
+     */
+    public int score(long sequence) {
+        return scores[(int) sequence & mask];
+    }
+
+    /**
+     * This method returns the flags of the event with the given sequence
+     *
+     * @param sequence long that represents the sequence of the event
+     * @return int The flags, ELIMINATED and GAME_OVER
+     */
+    public int flags(long sequence) {
+        return flags[(int) sequence & mask];
+    }
+}
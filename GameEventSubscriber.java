@@ -0,0 +1,204 @@
+/**
+ * GameEventSubscriber class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+/*
+ * Reader of a GameEventBus, at its own pace: poll moves to the next event and the
+ * getters read it straight from the bus, nothing is copied.
+ * A subscriber that falls more than the capacity of the bus behind skips to the
+ * oldest event still kept and counts the events it lost in getDropped. If the
+ * subscriber reads from another thread than the game, the event it is reading
+ * may be overwritten while it reads it, so it must check isIntact after reading
+ * and, if the event is no longer intact, poll again (which skips what was lost).
+ */
+public class GameEventSubscriber {
+    // variables of GameEventSubscriber Class
+    private final GameEventBus bus;
+    private long next; // sequence of the next event to read
+    private long current; // sequence of the event being read, or -1 before the first poll
+    private long dropped; // events overwritten before they were read
+
+    /**
+     * Constructor for GameEventSubscriber
+     * Creates a new GameEventSubscriber of the given bus, that reads the events
+     * starting at the given sequence.
+     *
+     * @param bus   the bus
+     * @param first long that represents the sequence of the first event to read
+     * @pre bus != null && first >= 0 && first <= bus.cursor()
+     */
+    public GameEventSubscriber(GameEventBus bus, long first) {
+        this.bus = bus;
+        next = first;
+        current = -1;
+        dropped = 0;
+    }
+
+    /**
+     * Moves to the next event, skipping the events that were already overwritten
+     *
+     * @return boolean Whether there is a new event to read
+     */
+    public boolean poll() {
+        long cursor = bus.cursor();
+        boolean available = next < cursor;
+        if (available) {
+            long oldest = cursor - bus.capacity();
+            if (next < oldest) { // lagged behind by more than the capacity
+                dropped += oldest - next;
+                next = oldest;
+            }
+            current = next++;
+        }
+        return available;
+    }
+
+    /**
+     * Checks if the event being read was not overwritten while it was read.
+     * Always true if the subscriber reads in the thread of the game.
+     *
+     * @return boolean Whether the values read from the event are valid
+     * @pre poll() returned true
+     */
+    public boolean isIntact() {
+        boolean intact = bus.isIntact(current);
+        if (!intact) { // the event is lost, poll skips it with the others
+            dropped++;
+            next = current + 1;
+        }
+        return intact;
+    }
+
+    /**
+     * This method returns the number of events published and not read yet
+     *
+     * @return long The lag of the subscriber
+     */
+    public long getLag() {
+        return bus.cursor() - next;
+    }
+
+    /**
+     * This method returns the number of events that were overwritten before they were read
+     *
+     * @return long The number of events lost
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * This method returns the sequence of the event being read
+     *
+     * @return long The sequence
+     * @pre poll() returned true
+     */
+    public long getSequence() {
+        return current;
+    }
+
+    /**
+     * This method returns the turn of the event being read
+     *
+     * @return int The turn, as counted by Game.getTurn after the shot
+     * @pre poll() returned true
+     */
+    public int getTurn() {
+        return bus.turn(current);
+    }
+
+    /**
+     * This method returns the shooter of the event being read
+     *
+     * @return int The position of the player that shot
+     * @pre poll() returned true
+     */
+    public int getShooter() {
+        return bus.shooter(current);
+    }
+
+    /**
+     * This method returns the target of the event being read
+     *
+     * @return int The position of the player shot at
+     * @pre poll() returned true
+     */
+    public int getTarget() {
+        return bus.target(current);
+    }
+
+    /**
+     * This method returns the row of the event being read
+     *
+     * @return int The row of the shot, starting at 1
+     * @pre poll() returned true
+     */
+    public int getRow() {
+        return bus.row(current);
+    }
+
+    /**
+     * This method returns the column of the event being read
+     *
+     * @return int The column of the shot, starting at 1
+     * @pre poll() returned true
+     */
+    public int getCol() {
+        return bus.col(current);
+    }
+
+    /**
+     * This method returns the result of the event being read
+     *
+     * @return int The length of the ship hit, its negative length if it was already
+     *             hit, or 0 if the shot missed
+     * @pre poll() returned true
+     */
+    public int getLength() {
+        return bus.length(current);
+    }
+
+    /**
+     * This method returns the ship hit by the event being read
+     *
+     * @return int The id of the ship in the fleet of the target, or GameEventBus.NO_SHIP
+     * @pre poll() returned true
+     */
+    public int getShip() {
+        return bus.ship(current);
+    }
+
+    /**
+     * This method returns the score the shooter gained with the event being read
+     *
+     * @return int The score gained, negative if it lost score
+     * @pre poll() returned true
+     */
+    public int getScore() {
+        return bus.score(current);
+    }
+
+    /**
+     * Checks if the shot being read eliminated its target
+     *
+     * @return boolean Whether the target was eliminated
+     * @pre poll() returned true
+     */
+    public boolean isElimination() {
+        return (bus.flags(current) & GameEventBus.ELIMINATED) != 0;
+    }
+
+    /**
+     * Checks if the shot being read ended the game
+     *
+     * @return boolean Whether the game is over
+     * @pre poll() returned true
+     */
+    public boolean isGameOver() {
+        return (bus.flags(current) & GameEventBus.GAME_OVER) != 0;
+    }
+}
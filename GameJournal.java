@@ -0,0 +1,339 @@
+/**
+ * GameJournal class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Append-only journal of a game: every change to the game is appended as one
+ * fixed-size record, and replaying the records into a new game gives back the
+ * same game. Every number is big-endian and each record has RECORD_SIZE bytes:
+ *   GAME    int GAME, int number of players, long id of the game
+ *   PLAYER  int PLAYER, int index of the fleet, int length of the name in bytes,
+ *           followed by the name in UTF-8 in as many records as it needs
+ *   SHOT    int SHOT, int shooter, int target, int row, int column
+ *   SALVO   int SALVO, int shooter, int target, int number of shots, followed by
+ *           the row and the column of each shot in as many records as they need
+ * (players are given by their position in the game, in the order they were added,
+ * and every unused byte is 0).
+ * Records are kept in a buffer and written in groups, when the game is about to
+ * answer, so an answer is never seen before the change that led to it is in the
+ * journal. The file is not forced to the disk after each group: what was written
+ * survives a crash of the process, and close forces it.
+ * Every SNAPSHOT_INTERVAL records a GameSnapshot of the game is written next to the
+ * journal, so a replay starts from the last snapshot and only replays the records
+ * after it. The id of the game, chosen at random when the game is created, is kept
+ * in the snapshot too, and a snapshot of another game, left by a journal that was
+ * started again, is never applied.
+ */
+public class GameJournal {
+    // constants of GameJournal Class
+    private static final int RECORD_SIZE = 24;
+    private static final int BUFFER_SIZE = 64 * 1024; // records of a group commit, at most
+    private static final int GAME = 1;
+    private static final int PLAYER = 2;
+    private static final int SHOT = 3;
+    private static final int SALVO = 4;
+    private static final int SNAPSHOT_INTERVAL = 1 << 14; // records between snapshots
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String INVALID_RECORD_MESSAGE = "%s: invalid record at byte %d";
+    // variables of GameJournal Class
+    private final String fileName;
+    private final FileChannel channel;
+    private final Path snapshotFile;
+    private long gameId; // id of the game recorded, in its GAME record and its snapshots
+    private ByteBuffer buffer; // records not written yet
+    private long position; // end of the records in the file
+    private long snapshotPosition; // end of the records in the last snapshot
+
+    /**
+     * Constructor for GameJournal
+     * Opens the journal in the given file, creating it if it does not exist.
+     *
+     * @param fileName The name of the file of the journal
+     * @throws IOException if the file can not be opened
+     * @pre fileName != null
+     */
+    public GameJournal(String fileName) throws IOException {
+        this.fileName = fileName;
+        channel = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        snapshotFile = Path.of(fileName + SNAPSHOT_SUFFIX);
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        position = 0;
+        snapshotPosition = 0;
+        gameId = 0;
+    }
+
+    /**
+     * Replays the journal into a new game, as the commands that made it did, starting
+     * from the last snapshot of the same game if there is one.
+     * A record that was only partly written, by a crash in the middle of a write,
+     * is dropped, and new records are appended after the last whole one. A whole
+     * record that the game could not have made (an unknown type, a shot at the
+     * shooter, at an eliminated player or off the board of its target, ...) stops
+     * the replay, and the journal is left as it is.
+     *
+     * @param fleets the catalog of available fleets the game was played with
+     * @return Game The game, or null if the journal is empty
+     * @throws IOException if the file can not be read, or has an invalid record
+     * @pre fleets != null && nothing was recorded yet
+     */
+    public Game replay(FleetCatalog fleets) throws IOException {
+        ByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        Game game = null;
+        if (records.limit() >= RECORD_SIZE && records.getInt(0) == GAME)
+            gameId = records.getLong(2 * Integer.BYTES);
+        GameSnapshot snapshot = GameSnapshot.read(snapshotFile, fleets);
+        if (snapshot != null && snapshot.getGameId() == gameId && gameId != 0
+                && snapshot.getJournalPosition() <= records.limit()) {
+            game = snapshot.getGame();
+            position = snapshotPosition = snapshot.getJournalPosition();
+            records.position((int) position);
+        }
+        boolean whole = true; // whether the last record read was written whole
+        while (whole && records.remaining() >= RECORD_SIZE) {
+            int start = records.position();
+            int type = records.getInt();
+            long end = start + RECORD_SIZE; // end of the record and of the records it needs
+            boolean valid;
+            if (type == GAME) {
+                int players = records.getInt();
+                valid = game == null && players > 0;
+                if (valid)
+                    game = new Game(players);
+            } else if (type == PLAYER) {
+                int index = records.getInt();
+                int length = records.getInt();
+                end += (length + RECORD_SIZE - 1L) / RECORD_SIZE * RECORD_SIZE;
+                whole = end <= records.limit();
+                AvailableFleet fleet = index >= 0 ? fleets.getFleet(index) : null;
+                valid = game != null && !game.isFull() && fleet != null && length >= 0;
+                if (valid && whole) {
+                    byte[] name = new byte[length];
+                    records.position(start + RECORD_SIZE).get(name);
+                    game.addPlayer(new String(name, StandardCharsets.UTF_8), fleet);
+                    if (game.isFull())
+                        game.setCurrentPlayer();
+                }
+            } else if (type == SHOT) {
+                int shooter = records.getInt();
+                int target = records.getInt();
+                int row = records.getInt();
+                int col = records.getInt();
+                valid = isValidTarget(game, shooter, target) && isOnBoard(game, target, row, col);
+                if (valid)
+                    game.shootAt(row, col, target);
+            } else if (type == SALVO) {
+                int shooter = records.getInt();
+                int target = records.getInt();
+                int count = records.getInt();
+                end += ((long) count * 2 * Integer.BYTES + RECORD_SIZE - 1) / RECORD_SIZE * RECORD_SIZE;
+                whole = end <= records.limit();
+                valid = isValidTarget(game, shooter, target) && count > 0;
+                if (valid && whole) {
+                    int[] rows = new int[count];
+                    int[] cols = new int[count];
+                    records.position(start + RECORD_SIZE);
+                    for (int i = 0; valid && i < count; i++) {
+                        rows[i] = records.getInt();
+                        cols[i] = records.getInt();
+                        valid = isOnBoard(game, target, rows[i], cols[i]);
+                    }
+                    if (valid)
+                        game.salvoAt(rows, cols, count, target, new int[count]);
+                }
+            } else
+                valid = false;
+            if (!valid)
+                throw new IOException(String.format(INVALID_RECORD_MESSAGE, fileName, start));
+            if (whole) {
+                records.position((int) end);
+                position = end;
+            }
+        }
+        channel.truncate(position);
+        return game;
+    }
+
+    /**
+     * Checks if the game could have accepted a shot of the given shooter at the
+     * given target, returns boolean.
+     *
+     * @param game    the game replayed so far, or null if it was not created yet
+     * @param shooter int that represents the position of the player that shot
+     * @param target  int that represents the position of the player shot at
+     * @return boolean whether it is the turn of the shooter and the target can be shot at
+     */
+    private static boolean isValidTarget(Game game, int shooter, int target) {
+        return game != null && game.isFull() && !game.isOver() && shooter == game.getCurrentPosition()
+                && target >= 0 && target < game.getPlayerCount() && target != shooter
+                && !game.getPlayerAt(target).isEliminated();
+    }
+
+    /**
+     * Checks if the given position is on the board of the given target, returns
+     * boolean.
+     *
+     * @param game   the game replayed so far
+     * @param target int that represents the position of the player shot at
+     * @param row    int that represents the row of the shot
+     * @param col    int that represents the column of the shot
+     * @return boolean whether the position is on the board
+     * @pre isValidTarget(game, shooter, target)
+     */
+    private static boolean isOnBoard(Game game, int target, int row, int col) {
+        Player player = game.getPlayerAt(target);
+        return row >= 1 && col >= 1 && row <= player.maxRow() && col <= player.maxCol();
+    }
+
+    /**
+     * Records the creation of a game, with a new id, and deletes the snapshot of the
+     * game recorded before, if any
+     *
+     * @param players int that represents the number of players of the game
+     * @pre players > 1
+     */
+    public void gameCreated(int players) {
+        gameId = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE); // 0 is the id of no game
+        try {
+            Files.deleteIfExists(snapshotFile); // a snapshot of a game recorded before
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        snapshotPosition = 0;
+        reserve(RECORD_SIZE);
+        buffer.putInt(GAME).putInt(players).putLong(gameId);
+        pad();
+    }
+
+    /**
+     * Records that a player was added to the game
+     *
+     * @param name  the name of the player
+     * @param fleet int that represents the index of the fleet the player chose
+     * @pre name != null && fleet >= 0
+     */
+    public void playerAdded(String name, int fleet) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int chunks = (bytes.length + RECORD_SIZE - 1) / RECORD_SIZE;
+        reserve((1 + chunks) * RECORD_SIZE);
+        buffer.putInt(PLAYER).putInt(fleet).putInt(bytes.length);
+        pad();
+        buffer.put(bytes);
+        pad();
+    }
+
+    /**
+     * Records a shot that was accepted by the game
+     *
+     * @param shooter int that represents the position of the player that shot
+     * @param target  int that represents the position of the player shot at
+     * @param row     int that represents the row of the shot
+     * @param col     int that represents the column of the shot
+     * @pre shooter >= 0 && target >= 0
+     */
+    public void shotFired(int shooter, int target, int row, int col) {
+        reserve(RECORD_SIZE);
+        buffer.putInt(SHOT).putInt(shooter).putInt(target).putInt(row).putInt(col);
+        pad();
+    }
+
+    /**
+     * Records a salvo that was accepted by the game
+     *
+     * @param shooter int that represents the position of the player that shot
+     * @param target  int that represents the position of the player shot at
+     * @param rows    the rows of the shots
+     * @param cols    the columns of the shots
+     * @param count   int that represents the number of shots
+     * @pre shooter >= 0 && target >= 0 && count > 0
+     */
+    public void salvoFired(int shooter, int target, int[] rows, int[] cols, int count) {
+        int chunks = (count * 2 * Integer.BYTES + RECORD_SIZE - 1) / RECORD_SIZE;
+        reserve((1 + chunks) * RECORD_SIZE);
+        buffer.putInt(SALVO).putInt(shooter).putInt(target).putInt(count);
+        pad();
+        for (int i = 0; i < count; i++)
+            buffer.putInt(rows[i]).putInt(cols[i]);
+        pad();
+    }
+
+    /**
+     * Writes every buffered record to the file, in a single write, without forcing
+     * it to the disk, and then a snapshot of the given game if enough records were
+     * written since the last one
+     *
+     * @param game the game whose changes were recorded, or null if it was not created yet
+     */
+    public void commit(Game game) {
+        write();
+        if (game != null && position - snapshotPosition >= (long) SNAPSHOT_INTERVAL * RECORD_SIZE)
+            try {
+                GameSnapshot.write(game, gameId, position, snapshotFile);
+                snapshotPosition = position;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+    }
+
+    /**
+     * Writes every buffered record, forces the file to the disk and closes it
+     *
+     * @throws IOException if the file can not be written
+     */
+    public void close() throws IOException {
+        write();
+        channel.force(false);
+        channel.close();
+    }
+
+    /**
+     * Makes room in the buffer for the given number of bytes, writing the buffered
+     * records first if they do not fit
+     *
+     * @param bytes int that represents the number of bytes to add
+     * @pre bytes > 0
+     */
+    private void reserve(int bytes) {
+        if (buffer.remaining() < bytes)
+            write();
+        if (buffer.capacity() < bytes) // a name too long for a whole buffer
+            buffer = ByteBuffer.allocateDirect(bytes);
+    }
+
+    /**
+     * Writes every buffered record to the file, in a single write
+     */
+    private void write() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining())
+                position += channel.write(buffer, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Fills the rest of the current record with zeros
+     */
+    private void pad() {
+        while (buffer.position() % RECORD_SIZE != 0)
+            buffer.put((byte) 0);
+    }
+}
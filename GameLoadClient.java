@@ -0,0 +1,131 @@
+/**
+ * GameLoadClient class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Load client for GameServer. Opens many connections at once and sends the same
+ * script, as Main would read it, through each of them, with every command
+ * pipelined. Each connection ends when the server closes it after quit.
+ * A loopback server started by the client runs in a thread of its own: if it
+ * fails, it wakes the client up, which fails with its error.
+ */
+public class GameLoadClient {
+    // constants of GameLoadClient Class
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Plays the given script through the given number of connections at once and
+     * prints how long it took and how many bytes were received.
+     * If there is no server, starts one on loopback in this process.
+     * Usage: GameLoadClient script [connections] [host:port]
+     *
+     * @param args the script, the number of connections (100 by default) and the
+     *             address of the server
+     * @throws IOException if the script can not be read, a connection fails or the
+     *                     loopback server fails
+     */
+    public static void main(String[] args) throws IOException {
+        ByteBuffer script = ByteBuffer.wrap(Files.readAllBytes(Path.of(args[0]))).asReadOnlyBuffer();
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        Selector selector = Selector.open();
+        AtomicReference<IOException> serverFailure = new AtomicReference<>();
+        InetSocketAddress address = args.length > 2 ? address(args[2]) : startServer(selector, serverFailure);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ | SelectionKey.OP_WRITE).attach(script.duplicate());
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        long received = 0;
+        int open = connections;
+        while (open > 0) {
+            selector.select();
+            if (serverFailure.get() != null)
+                throw new IOException("the loopback server failed", serverFailure.get());
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                SocketChannel channel = (SocketChannel) key.channel();
+                if (key.isValid() && key.isWritable()) {
+                    ByteBuffer pending = (ByteBuffer) key.attachment();
+                    channel.write(pending);
+                    if (!pending.hasRemaining()) // the whole script was sent
+                        key.interestOps(SelectionKey.OP_READ);
+                }
+                if (key.isValid() && key.isReadable()) {
+                    int read = channel.read(buffer.clear());
+                    if (read > 0)
+                        received += read;
+                    else if (read < 0) { // the server closed the connection after quit
+                        key.cancel();
+                        channel.close();
+                        open--;
+                    }
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        selector.close();
+        System.out.println(connections + " connections: " + elapsed / 1_000_000 + " ms, "
+                + received + " bytes received");
+        System.exit(0); // stops the loopback server, if it was started
+    }
+
+    /**
+     * Returns the address of the given "host:port"
+     *
+     * @param hostAndPort the host and the port, separated by ':'
+     * @return InetSocketAddress The address
+     * @pre hostAndPort contains ':'
+     */
+    private static InetSocketAddress address(String hostAndPort) {
+        int colon = hostAndPort.lastIndexOf(':');
+        return new InetSocketAddress(hostAndPort.substring(0, colon), Integer.parseInt(hostAndPort.substring(colon + 1)));
+    }
+
+    /**
+     * Starts a GameServer on a free loopback port, in a thread of its own. If the
+     * server fails, its error is kept in the given reference and the given selector
+     * is woken up.
+     *
+     * @param selector the selector of the client
+     * @param failure  where the error of the server is kept
+     * @return InetSocketAddress The address of the server
+     * @throws IOException if the fleets can not be read or the server can not be started
+     * @pre selector != null && failure != null
+     */
+    private static InetSocketAddress startServer(Selector selector, AtomicReference<IOException> failure)
+            throws IOException {
+        GameServer server = new GameServer(Main.openFleets(), 0);
+        Thread thread = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                failure.set(e);
+                selector.wakeup();
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return new InetSocketAddress("127.0.0.1", server.getPort());
+    }
+}
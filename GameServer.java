@@ -0,0 +1,136 @@
+/**
+ * GameServer class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/*
+ * Plays the commands of Main over TCP. Each connection is a game of its own: the
+ * client sends what it would type in Main and receives what Main would print, and
+ * the connection is closed after quit. Every connection is served by a single
+ * thread through a selector, so a connection costs a few buffers, not a process.
+ */
+public class GameServer {
+    // constants of GameServer Class
+    private static final int DEFAULT_PORT = 7070;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int BACKLOG = 1024; // connections waiting to be accepted
+    // variables of GameServer Class
+    private final FleetCatalog fleets;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final ByteBuffer readBuffer; // direct buffer where every connection is read
+
+    /**
+     * Constructor for GameServer
+     * Creates a new GameServer listening on the given port.
+     *
+     * @param fleets the catalog of available fleets, shared by every game
+     * @param port   int that represents the port, or 0 for any free port
+     * @throws IOException if the port can not be opened
+     * @pre fleets != null && port >= 0
+     */
+    public GameServer(FleetCatalog fleets, int port) throws IOException {
+        this.fleets = fleets;
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port), BACKLOG);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    }
+
+    /**
+     * This method returns the port where the server is listening
+     *
+     * @return int The port
+     * @throws IOException if the port can not be found
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Serves every connection until the thread is interrupted
+     *
+     * @throws IOException if the selector fails
+     */
+    public void serve() throws IOException {
+        while (!Thread.currentThread().isInterrupted()) {
+            selector.select();
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (key.isAcceptable())
+                    accept();
+                else
+                    serve(key);
+            }
+        }
+        selector.close();
+        server.close();
+    }
+
+    /**
+     * Accepts every pending connection, each one starting a new game
+     *
+     * @throws IOException if a connection can not be accepted
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ).attach(new ClientConnection(channel, fleets));
+        }
+    }
+
+    /**
+     * Reads or writes the connection of the given key, whichever it is ready for.
+     * A connection that fails is closed without affecting the others.
+     *
+     * @param key the key of the connection
+     * @pre key.attachment() instanceof ClientConnection
+     */
+    private void serve(SelectionKey key) {
+        ClientConnection connection = (ClientConnection) key.attachment();
+        try {
+            if (key.isReadable())
+                connection.read(key, readBuffer);
+            else if (key.isWritable())
+                connection.write(key);
+        } catch (IOException e) {
+            try {
+                connection.close(key);
+            } catch (IOException ignored) {
+                // the connection is dropped anyway
+            }
+        }
+    }
+
+    /**
+     * Starts the server.
+     * Usage: GameServer [port]
+     *
+     * @param args the port, by default 7070
+     * @throws IOException if the fleets can not be read or the port can not be opened
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameServer gameServer = new GameServer(Main.openFleets(), port);
+        System.out.println("Listening on port " + gameServer.getPort());
+        gameServer.serve();
+    }
+}
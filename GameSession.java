@@ -0,0 +1,640 @@
+/**
+ * GameSession class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class GameSession {
+    // constants of GameSession Class
+    private static final String NOTEXISTENT_MESSAGE = "Nonexistent player";
+    private static final String WINNER_MESSAGE = " won the game!"; // after the name of the winner
+    private static final String INVALID_COMMAND_MESSAGE = "Invalid command";
+    private static final String NOT_OVER_MESSAGE = "The game was not over yet...";
+    private static final String GAMEOVER_MESSAGE = "The game is over";
+    private static final String INVALIDSHOT_MESSAGE = "Invalid shot";
+    private static final String SELF_SHOT_MESSAGE = "Self-inflicted shot";
+    private static final String ELIMINATED_SHOT_MESSAGE = "Eliminated player";
+    private static final String NEXT_MESSAGE = "Next player: ";
+    private static final String SCORE_MESSAGE = " has "; // between the name and the score
+    private static final String POINTS_MESSAGE = " points";
+    private static final String REJECTED_FLEET_MESSAGE = "Invalid fleet";
+    // commands, in the order of COMMANDS
+    private static final int PLAYER_COMMAND = 0;
+    private static final int PLAYERS_COMMAND = 1;
+    private static final int SHOOT_COMMAND = 2;
+    private static final int FLEET_COMMAND = 3;
+    private static final int SCORE_COMMAND = 4;
+    private static final int SCORES_COMMAND = 5;
+    private static final int QUIT_COMMAND = 6;
+    private static final int STATS_COMMAND = 7;
+    private static final int SALVO_COMMAND = 8;
+    private static final int INVALID_COMMAND = 9; // not a keyword, only counted in the stats
+    private static final String[] COMMAND_NAMES = { "player", "players", "shoot", "fleet", "score", "scores",
+            "quit", "stats", "salvo", "invalid" };
+    private static final int INITIAL_SALVO_SIZE = 16;
+    private static final int MAX_SALVO_SIZE = 1 << 16; // shots of a salvo, at most
+    private static final byte[] SINCE = "since".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_VERSION_DIGITS = 9; // so that a version fits in an int
+    private static final String SPAN_SEPARATOR = " ";
+    private static final byte[][] COMMANDS = keywords(INVALID_COMMAND);
+    // states of the session, in the order they happen
+    private static final int READING_PLAYER_COUNT = 0;
+    private static final int READING_PLAYER_NAME = 1;
+    private static final int READING_PLAYER_FLEET = 2;
+    private static final int PLAYING = 3;
+    private static final int FINISHED = 4;
+    // variables of GameSession Class
+    private final FleetCatalog fleets;
+    private final CommandReader in;
+    private final CommandWriter out; // output of the commands, flushed once per batch of commands
+    private final GameJournal journal; // null if the game is not journaled
+    private final GameStats stats;
+    private Game game;
+    private int state;
+    private String playerName; // name read for the player being added
+    private int[] salvoRows; // shots of the last salvo, reused by every salvo
+    private int[] salvoCols;
+    private int[] salvoLengths;
+
+    /**
+     * Constructor for GameSession
+     * Creates a new session that reads the setup of a game and then its commands
+     * from the given reader, one step at a time, and writes the answers to the given writer.
+     *
+     * @param fleets the catalog of available fleets
+     * @param in     the reader from which the user input is read
+     * @param out    the writer to which the output is written
+     * @pre fleets != null && in != null && out != null
+     */
+    public GameSession(FleetCatalog fleets, CommandReader in, CommandWriter out) {
+        this.fleets = fleets;
+        this.in = in;
+        this.out = out;
+        journal = null;
+        stats = new GameStats(COMMAND_NAMES);
+        state = READING_PLAYER_COUNT;
+    }
+
+    /**
+     * Constructor for GameSession
+     * Creates a new session like the one above, that records every change to its
+     * game in the given journal.
+     * The game recorded in the journal, if any, is replayed first, and the session
+     * goes on from where it was left.
+     *
+     * @param fleets  the catalog of available fleets
+     * @param in      the reader from which the user input is read
+     * @param out     the writer to which the output is written
+     * @param journal the journal of the game
+     * @throws IOException if the journal can not be read
+     * @pre fleets != null && in != null && out != null && journal != null
+     */
+    public GameSession(FleetCatalog fleets, CommandReader in, CommandWriter out, GameJournal journal)
+            throws IOException {
+        this.fleets = fleets;
+        this.in = in;
+        this.out = out;
+        this.journal = journal;
+        stats = new GameStats(COMMAND_NAMES);
+        game = journal.replay(fleets);
+        if (game == null)
+            state = READING_PLAYER_COUNT;
+        else if (!game.isFull())
+            state = READING_PLAYER_NAME;
+        else
+            state = PLAYING;
+    }
+
+    /**
+     * Checks if the session has ended, after the quit command
+     *
+     * @return boolean Whether the session has ended
+     */
+    public boolean isFinished() {
+        return state == FINISHED;
+    }
+
+    /**
+     * This method returns the game of the session
+     *
+     * @return Game the game, or null while the players are being read
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * This method returns the stats of the commands of the session
+     *
+     * @return GameStats the stats
+     */
+    public GameStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Checks if the next step can run with the input already buffered, without
+     * waiting for more: there must be a whole line to read.
+     * Used by sessions that are fed their input instead of reading it.
+     *
+     * @return boolean Whether the next step is ready
+     * @pre !isFinished()
+     */
+    public boolean isStepReady() {
+        if (state != READING_PLAYER_NAME) // every other step starts by skipping whitespace
+            in.hasBufferedInput();
+        return in.hasLine();
+    }
+
+    /**
+     * Appends the given bytes to the input of the session, without running them
+     *
+     * @param bytes  The bytes to append
+     * @param offset int that represents the position of the first byte
+     * @param length int that represents the number of bytes
+     * @pre bytes != null && offset >= 0 && length >= 0 && the reader of the session is fed
+     */
+    public void feed(byte[] bytes, int offset, int length) {
+        in.feed(bytes, offset, length);
+    }
+
+    /**
+     * Appends the remaining bytes of the given buffer to the input of the session,
+     * without running them
+     *
+     * @param bytes The buffer whose remaining bytes are appended
+     * @pre bytes != null && the reader of the session is fed
+     */
+    public void feed(ByteBuffer bytes) {
+        in.feed(bytes);
+    }
+
+    /**
+     * Runs every step whose input is already buffered and flushes the output,
+     * even if a step fails.
+     * Used by sessions that are fed their input, after each feed.
+     */
+    public void runReadySteps() {
+        try {
+            while (!isFinished() && isStepReady())
+                step();
+        } finally {
+            flush();
+        }
+    }
+
+    /**
+     * Runs the next step of the session: reads one line of the setup of the game
+     * (the number of players, the name of a player or the fleet it chooses) or runs
+     * one command.
+     * The output is flushed when there is no more buffered input to run.
+     *
+     * @pre !isFinished()
+     */
+    public void step() {
+        switch (state) {
+            case READING_PLAYER_COUNT -> {
+                int players = in.nextInt();
+                in.nextLine();
+                game = new Game(players); // creates the game with the number of players
+                if (journal != null)
+                    journal.gameCreated(players);
+                state = READING_PLAYER_NAME;
+            }
+            case READING_PLAYER_NAME -> {
+                in.nextLine();
+                playerName = in.tokenString();
+                state = READING_PLAYER_FLEET;
+            }
+            case READING_PLAYER_FLEET -> {
+                int index = in.nextInt() - 1; // -1 because the index of the fleets in the catalog starts at 0
+                in.nextLine();
+                AvailableFleet fleet = fleets.getFleet(index);
+                if (fleet == null) { // the catalog rejected the fleet, so the game can not be played
+                    out.println(REJECTED_FLEET_MESSAGE);
+                    state = FINISHED;
+                } else {
+                    game.addPlayer(playerName, fleet); // adds the player to the game
+                    if (journal != null)
+                        journal.playerAdded(playerName, index);
+                    if (!game.isFull())
+                        state = READING_PLAYER_NAME;
+                    else {
+                        game.setCurrentPlayer(); // sets the current player to the first player
+                        state = PLAYING;
+                    }
+                }
+            }
+            default -> {
+                int command = in.nextKeyword(COMMANDS);
+                int counted = command == CommandReader.NO_MATCH ? INVALID_COMMAND : command;
+                stats.startCommand(counted);
+                runCommand(command, in);
+                stats.endCommand(counted);
+                if (command == QUIT_COMMAND)
+                    state = FINISHED;
+            }
+        }
+        if (state == FINISHED || !in.hasBufferedInput()) // flushes before waiting for more input
+            flush();
+    }
+
+    /**
+     * Flushes the output, after writing the records of the changes it answers to the journal
+     */
+    private void flush() {
+        if (journal != null)
+            journal.commit(game);
+        out.flush();
+    }
+
+    /**
+     * Returns the bytes of the first names of COMMAND_NAMES, as they are matched by
+     * the CommandReader.
+     *
+     * @param count int that represents the number of names
+     * @return byte[][] the names in UTF-8
+     * @pre count >= 0 && count <= COMMAND_NAMES.length
+     */
+    private static byte[][] keywords(int count) {
+        byte[][] keywords = new byte[count][];
+        for (int i = 0; i < count; i++)
+            keywords[i] = COMMAND_NAMES[i].getBytes(StandardCharsets.UTF_8);
+        return keywords;
+    }
+
+    /**
+     * Runs the given command.
+     * If the command is invalid, prints "Invalid command".
+     *
+     * @param command int with the command to run, or CommandReader.NO_MATCH
+     * @param in      the reader from which the user input is read
+     * @pre in != null
+     */
+    private void runCommand(int command, CommandReader in) {
+        switch (command) {
+            case PLAYER_COMMAND -> playerCommand();
+            case PLAYERS_COMMAND -> playersCommand();
+            case SHOOT_COMMAND -> shootCommand(in);
+            case FLEET_COMMAND -> fleetCommand(in);
+            case SCORE_COMMAND -> scoreCommand(in);
+            case SCORES_COMMAND -> scoresCommand(in);
+            case QUIT_COMMAND -> quitCommand();
+            case STATS_COMMAND -> statsCommand();
+            case SALVO_COMMAND -> salvoCommand(in);
+            default -> {
+                out.println(INVALID_COMMAND_MESSAGE);
+                in.nextLine();
+            }
+        }
+    }
+
+    /**
+     * Reads the rest of the line as a player name and resolves it in the game,
+     * without creating a String for it.
+     *
+     * @param in the reader from which the player name is read
+     * @return String the name of the player, or null if the player does not exist
+     * @pre game != null && in != null
+     */
+    private String readName(CommandReader in) {
+        in.nextLine();
+        return game.findName(in.buffer(), in.tokenStart(), in.tokenLength());
+    }
+
+    /**
+     * Runs the player command.
+     * If the game is over, prints "The game is over".
+     * Otherwise, prints "Next player: " followed by the name of the current player.
+     *
+     * @pre game != null
+     */
+    private void playerCommand() {
+        if (game.isOver())
+            out.println(GAMEOVER_MESSAGE);
+        else {
+            out.print(NEXT_MESSAGE);
+            out.println(game.getNameOfCurrent());
+        }
+    }
+
+    /**
+     * Runs the players command.
+     * Prints the name of each player in the game.
+     * Does not print eliminated players.
+     *
+     * @pre game != null
+     */
+    private void playersCommand() {
+        PlayerList players = game.PlayerIterator();
+        while (players.hasNextPlayer())
+            out.println(players.nextPlayer().getName());
+    }
+
+    /**
+     * Runs the fleet command.
+     * Prints the fleet of the player with the given name.
+     * If the name is followed by "since" and a version, the version of the game
+     * (Game.getVersion) when the client last saw the fleet, prints only what changed
+     * since then: the current version and the number of spans, then each span of
+     * cells that were hit as its row, its first column and its length, one per line.
+     * If the player does not exist, prints "Nonexistent player", and if the version
+     * is not in the history of the game, because it was not played yet or belongs
+     * to turns that were undone, prints "Invalid command".
+     *
+     * @param in the reader from which the player name is read
+     * @pre game != null && in != null
+     */
+    private void fleetCommand(CommandReader in) {
+        in.nextLine(); // reads the name of the player, and the version if any
+        byte[] line = in.buffer();
+        int start = in.tokenStart();
+        int length = in.tokenLength();
+        String name = game.findName(line, start, length);
+        int since = name == null ? sinceClause(line, start, length) : -1;
+        if (since >= 0) {
+            int nameEnd = since;
+            while (nameEnd > start && CommandReader.isWhitespace(line[nameEnd - 1]))
+                nameEnd--;
+            name = game.findName(line, start, nameEnd - start);
+        }
+        if (name == null) // if the player does not exist, prints "Nonexistent player"
+            out.println(NOTEXISTENT_MESSAGE);
+        else if (since < 0) {
+            byte[] board = game.getPlayer(name).renderFleet();
+            out.write(board, 0, board.length);
+        } else
+            printChanges(name, parseVersion(line, since + SINCE.length, start + length));
+    }
+
+    /**
+     * Finds a clause "since" followed by a version at the end of the given line.
+     *
+     * @param line   the array that holds the line
+     * @param start  int that represents the position of the line
+     * @param length int that represents the length of the line, trimmed
+     * @return int The position of "since" in the line, or -1 if there is no clause
+     * @pre line != null && start >= 0 && length >= 0
+     */
+    private static int sinceClause(byte[] line, int start, int length) {
+        int digits = start + length; // first digit of the version
+        while (digits > start && line[digits - 1] >= '0' && line[digits - 1] <= '9')
+            digits--;
+        int since = digits; // position of "since", once the spaces before the version are skipped
+        while (since > start && CommandReader.isWhitespace(line[since - 1]))
+            since--;
+        since -= SINCE.length;
+        boolean found = digits < start + length && start + length - digits <= MAX_VERSION_DIGITS
+                && since < digits - SINCE.length && since > start && CommandReader.isWhitespace(line[since - 1]);
+        for (int i = 0; found && i < SINCE.length; i++)
+            found = line[since + i] == SINCE[i];
+        return found ? since : -1;
+    }
+
+    /**
+     * Reads the version that follows "since" in a line.
+     *
+     * @param line  the array that holds the line
+     * @param start int that represents the position after "since"
+     * @param end   int that represents the end of the line
+     * @return int The version
+     * @pre the bytes between start and end are spaces followed by at most
+     *      MAX_VERSION_DIGITS digits
+     */
+    private static int parseVersion(byte[] line, int start, int end) {
+        int version = 0;
+        for (int i = start; i < end; i++)
+            if (!CommandReader.isWhitespace(line[i]))
+                version = version * 10 + line[i] - '0';
+        return version;
+    }
+
+    /**
+     * Prints the cells of the fleet of the player with the given name that changed
+     * since the given version, as the fleet command does.
+     * If the version is not in the history of the game, prints "Invalid command".
+     *
+     * @param name    the name of the player
+     * @param version int that represents the version of the game
+     * @pre game != null && name != null && game.hasPlayer(name)
+     */
+    private void printChanges(String name, int version) {
+        if (!game.isValidVersion(version))
+            out.println(INVALID_COMMAND_MESSAGE);
+        else {
+            int[] spans = game.fleetChangesSince(name, version);
+            out.print(game.getVersion());
+            out.print(SPAN_SEPARATOR);
+            out.print(spans.length / 3);
+            out.newLine();
+            for (int i = 0; i < spans.length; i += 3) {
+                out.print(spans[i]);
+                out.print(SPAN_SEPARATOR);
+                out.print(spans[i + 1]);
+                out.print(SPAN_SEPARATOR);
+                out.print(spans[i + 2]);
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * Runs the score command.
+     * Prints the score of the player with the given name.
+     * If the player does not exist, prints "Nonexistent player".
+     *
+     * @param in the reader from which the player name is read
+     * @pre game != null && in != null
+     */
+    private void scoreCommand(CommandReader in) {
+        String name = readName(in);
+        if (name != null)
+            printScore(name, game.getScoreOf(name));
+        else
+            out.println(NOTEXISTENT_MESSAGE);
+    }
+
+    /**
+     * Runs the scores command.
+     * Prints the name and score of each player in the game.
+     * By default, the players are ordered by score, from highest to lowest.
+     * If the command is followed by a number k, only the first k players are printed.
+     * If k is not positive, prints "Invalid command". Anything else after the command
+     * is not read, and is then read as the next command.
+     *
+     * @param in the reader from which the number of players, if any, is read
+     * @pre game != null && in != null
+     */
+    private void scoresCommand(CommandReader in) {
+        boolean top = in.hasNextIntOnLine();
+        int count = top ? in.nextInt() : 0; // reads the number of players, if any
+        if (top && count <= 0)
+            out.println(INVALID_COMMAND_MESSAGE);
+        else {
+            OrderedPlayerList players = top ? game.topScores(count) : game.OrderedPlayerIterator();
+            while (players.hasNextPlayer()) {
+                Player player = players.nextPlayer();
+                printScore(player.getName(), player.getScore());
+            }
+        }
+    }
+
+    /**
+     * Prints the score of a player, as "name has score points".
+     *
+     * @param name  the name of the player
+     * @param score the score of the player
+     * @pre out != null && name != null
+     */
+    private void printScore(String name, int score) {
+        out.print(name);
+        out.print(SCORE_MESSAGE);
+        out.print(score);
+        out.println(POINTS_MESSAGE);
+    }
+
+    /**
+     * Runs the shoot command.
+     * If the game is over, prints "The game is over".
+     * If the player does not exist, prints "Nonexistent player".
+     * If the player has been eliminated, prints "Eliminated player".
+     * If the player shoots at himself, prints "Self-inflicted shot".
+     * If the position is invalid, prints "Invalid shot".
+     * Otherwise, shoots at the given position.
+     *
+     * @param in the reader from which the position and player name are read
+     * @pre game != null && in != null
+     */
+    private void shootCommand(CommandReader in) {
+        int row = in.nextInt(); // reads the row of the position
+        int col = in.nextInt(); // reads the column of the position
+        String name = readName(in); // reads the name of the player
+
+        if (!game.isOver())
+            if (name != null)
+                if (game.playerEliminated(name))
+                    out.println(ELIMINATED_SHOT_MESSAGE);
+                else if (game.getNameOfCurrent().equals(name))
+                    out.println(SELF_SHOT_MESSAGE);
+                else if (game.isInvalidPosition(row, col, name))
+                    out.println(INVALIDSHOT_MESSAGE);
+                else {
+                    int shooter = game.getCurrentPosition();
+                    int target = game.getPositionOf(name);
+                    int length = game.shootAt(row, col, target);
+                    stats.recordShot(length, game.getPlayerAt(target).isEliminated());
+                    if (journal != null)
+                        journal.shotFired(shooter, target, row, col);
+                }
+            else
+                out.println(NOTEXISTENT_MESSAGE);
+        else
+            out.println(GAMEOVER_MESSAGE);
+    }
+
+    /**
+     * Runs the salvo command: a number of shots, the row and column of each one,
+     * and the name of the player they are all shot at, in the turn of the current player.
+     * Prints the same messages as the shoot command, and "Invalid shot" if there are
+     * no shots or any of them is out of the board, in which case none is shot.
+     * The bounds of the board are checked once, against the smallest and the largest
+     * row and column of the shots.
+     * A salvo of more than MAX_SALVO_SIZE shots prints "Invalid command" and the rest
+     * of its line is skipped, before anything is allocated for it.
+     *
+     * @param in the reader from which the shots and player name are read
+     * @pre game != null && in != null
+     */
+    private void salvoCommand(CommandReader in) {
+        int count = in.nextInt(); // reads the number of shots
+        if (count > MAX_SALVO_SIZE) {
+            in.nextLine(); // skips the shots and the name
+            out.println(INVALID_COMMAND_MESSAGE);
+        } else
+            salvo(in, count);
+    }
+
+    /**
+     * Reads the shots and the name of a salvo with the given number of shots and
+     * shoots them, as salvoCommand describes
+     *
+     * @param in    the reader from which the shots and player name are read
+     * @param count int that represents the number of shots
+     * @pre game != null && in != null && count <= MAX_SALVO_SIZE
+     */
+    private void salvo(CommandReader in, int count) {
+        if (salvoRows == null || salvoRows.length < count) { // at least doubles, up to MAX_SALVO_SIZE
+            int size = salvoRows == null ? INITIAL_SALVO_SIZE : salvoRows.length * 2;
+            size = Math.min(MAX_SALVO_SIZE, Math.max(size, count));
+            salvoRows = new int[size];
+            salvoCols = new int[size];
+            salvoLengths = new int[size];
+        }
+        int minRow = Integer.MAX_VALUE, minCol = Integer.MAX_VALUE;
+        int maxRow = Integer.MIN_VALUE, maxCol = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            salvoRows[i] = in.nextInt();
+            salvoCols[i] = in.nextInt();
+            minRow = Math.min(minRow, salvoRows[i]);
+            minCol = Math.min(minCol, salvoCols[i]);
+            maxRow = Math.max(maxRow, salvoRows[i]);
+            maxCol = Math.max(maxCol, salvoCols[i]);
+        }
+        String name = readName(in); // reads the name of the player
+
+        if (!game.isOver())
+            if (name != null)
+                if (game.playerEliminated(name))
+                    out.println(ELIMINATED_SHOT_MESSAGE);
+                else if (game.getNameOfCurrent().equals(name))
+                    out.println(SELF_SHOT_MESSAGE);
+                else if (count < 1 || game.isInvalidPosition(minRow, minCol, name)
+                        || game.isInvalidPosition(maxRow, maxCol, name))
+                    out.println(INVALIDSHOT_MESSAGE);
+                else {
+                    int shooter = game.getCurrentPosition();
+                    int target = game.getPositionOf(name);
+                    game.salvoAt(salvoRows, salvoCols, count, target, salvoLengths);
+                    boolean eliminated = game.getPlayerAt(target).isEliminated();
+                    for (int i = 0; i < count; i++)
+                        stats.recordShot(salvoLengths[i], eliminated && i == count - 1);
+                    if (journal != null)
+                        journal.salvoFired(shooter, target, salvoRows, salvoCols, count);
+                }
+            else
+                out.println(NOTEXISTENT_MESSAGE);
+        else
+            out.println(GAMEOVER_MESSAGE);
+    }
+
+    /**
+     * Runs the stats command.
+     * Prints the count and latencies of each command run so far, then the results
+     * of the shots.
+     */
+    private void statsCommand() {
+        stats.write(out);
+    }
+
+    /**
+     * Runs the quit command.
+     * If the game is over, prints "The game is over".
+     * Otherwise, prints the name of the winner.
+     *
+     * @pre game != null
+     */
+    private void quitCommand() {
+        if (game.isOver()) {
+            out.print(game.getWinnerName());
+            out.println(WINNER_MESSAGE);
+        } else
+            out.println(NOT_OVER_MESSAGE);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,219 @@
+/**
+ * GameSnapshot class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Binary snapshot of the whole state of a game. Fleets are not saved, only their
+ * index in the catalog, and each player saves its hit state as one bit per ship
+ * of its fleet and the turn of each ship that was hit, so the size of a snapshot
+ * does not depend on the size of the boards. The turns and the versions of the
+ * game are saved too, so a restored game goes on counting them where it was.
+ * Every number is big-endian:
+ *   header  int MAGIC, int VERSION, long id of the game of the journal,
+ *           long position of the journal when it was taken,
+ *           int number of players of the game, int number of players added,
+ *           int position of the current player, int 1 if the game is over or 0,
+ *           int number of turns played, int version of the game,
+ *           int last version given to a turn, int 0
+ *   player  int index of the fleet, int score, int 1 if eliminated or 0,
+ *           int length of the name in bytes, int number of ships hit, int 0,
+ *           the name in UTF-8 padded to 8 bytes,
+ *           then (number of ships + 63) / 64 longs with the ships that were hit,
+ *           then the turn of each ship hit, in the order of the fleet, padded to 8 bytes
+ */
+public class GameSnapshot {
+    // constants of GameSnapshot Class
+    private static final int MAGIC = 0x4253534E; // "BSSN"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 56;
+    private static final int PLAYER_HEADER_SIZE = 24;
+    // variables of GameSnapshot Class
+    private final Game game;
+    private final long gameId;
+    private final long journalPosition;
+
+    /**
+     * Constructor for GameSnapshot
+     * Creates a new GameSnapshot with a restored game.
+     *
+     * @param game            the game
+     * @param gameId          long that represents the id of the game of the journal
+     * @param journalPosition long that represents the position of the journal when it was taken
+     * @pre game != null && journalPosition >= 0
+     */
+    private GameSnapshot(Game game, long gameId, long journalPosition) {
+        this.game = game;
+        this.gameId = gameId;
+        this.journalPosition = journalPosition;
+    }
+
+    /**
+     * This method returns the restored game
+     *
+     * @return Game The game, as it was when the snapshot was taken
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * This method returns the id of the game of the journal the snapshot was taken
+     * from, so that a snapshot is never applied to the journal of another game
+     *
+     * @return long The id of the game
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * This method returns the position of the journal when the snapshot was taken,
+     * the first record that is not in the snapshot
+     *
+     * @return long The position of the journal
+     */
+    public long getJournalPosition() {
+        return journalPosition;
+    }
+
+    /**
+     * Writes a snapshot of the given game to the given file.
+     * The snapshot is written to a temporary file that then replaces the given one,
+     * so the file always holds a whole snapshot.
+     *
+     * @param game            the game
+     * @param gameId          long that represents the id of the game of the journal
+     * @param journalPosition long that represents the position of the journal
+     * @param file            the file of the snapshot
+     * @throws IOException if the file can not be written
+     * @pre game != null && journalPosition >= 0 && file != null
+     */
+    public static void write(Game game, long gameId, long journalPosition, Path file) throws IOException {
+        byte[][] names = new byte[game.getPlayerCount()][];
+        int size = HEADER_SIZE;
+        for (int i = 0; i < names.length; i++) {
+            Player player = game.getPlayerAt(i);
+            names[i] = player.getName().getBytes(StandardCharsets.UTF_8);
+            size += PLAYER_HEADER_SIZE + align(names[i].length) + sunkWords(player.getFleet()) * Long.BYTES
+                    + align(player.sunkShipCount() * Integer.BYTES);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(gameId).putLong(journalPosition)
+                .putInt(game.getMaxPlayers()).putInt(names.length).putInt(game.getCurrentPosition())
+                .putInt(game.isOver() ? 1 : 0).putInt(game.getTurn()).putInt(game.getVersion())
+                .putInt(game.getLastVersion()).putInt(0);
+        for (int i = 0; i < names.length; i++) {
+            Player player = game.getPlayerAt(i);
+            int sunk = player.sunkShipCount();
+            buffer.putInt(player.getFleet().index()).putInt(player.getScore())
+                    .putInt(player.isEliminated() ? 1 : 0).putInt(names[i].length).putInt(sunk).putInt(0);
+            buffer.put(names[i]).position(buffer.position() + align(names[i].length) - names[i].length);
+            LongBuffer words = buffer.asLongBuffer();
+            player.writeSunkShips(words);
+            buffer.position(buffer.position() + words.position() * Long.BYTES);
+            player.writeSinkTurns(buffer.asIntBuffer());
+            buffer.position(buffer.position() + align(sunk * Integer.BYTES));
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                out.write(buffer);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the snapshot in the given file and restores its game, with the fleets
+     * of the given catalog
+     *
+     * @param file   the file of the snapshot
+     * @param fleets the catalog of available fleets the game was played with
+     * @return GameSnapshot The snapshot, or null if the file does not exist
+     * @throws IOException if the file can not be read or is not a snapshot
+     * @pre file != null && fleets != null
+     */
+    public static GameSnapshot read(Path file, FleetCatalog fleets) throws IOException {
+        if (!Files.exists(file))
+            return null;
+        ByteBuffer buffer;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+        }
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+            throw new IOException(file + " is not a game snapshot");
+        long gameId = buffer.getLong();
+        long journalPosition = buffer.getLong();
+        Game game = new Game(buffer.getInt());
+        int players = buffer.getInt();
+        int current = buffer.getInt();
+        boolean over = buffer.getInt() != 0;
+        int turn = buffer.getInt();
+        int version = buffer.getInt();
+        int lastVersion = buffer.getInt();
+        buffer.getInt();
+        int[] starts = new int[players]; // position of the score of each player
+        for (int i = 0; i < players; i++) { // every player is added before any is eliminated
+            AvailableFleet fleet = fleets.getFleet(buffer.getInt());
+            starts[i] = buffer.position();
+            byte[] name = new byte[buffer.position(starts[i] + 2 * Integer.BYTES).getInt()];
+            int sunk = buffer.getInt();
+            buffer.getInt();
+            buffer.get(name).position(buffer.position() + align(name.length) + sunkWords(fleet) * Long.BYTES
+                    + align(sunk * Integer.BYTES) - name.length);
+            game.addPlayer(new String(name, StandardCharsets.UTF_8), fleet);
+        }
+        for (int i = 0; i < players; i++) {
+            int score = buffer.position(starts[i]).getInt();
+            boolean eliminated = buffer.getInt() != 0;
+            int nameLength = buffer.getInt();
+            buffer.position(buffer.position() + 2 * Integer.BYTES + align(nameLength));
+            LongBuffer words = buffer.asLongBuffer();
+            buffer.position(buffer.position() + sunkWords(game.getPlayerAt(i).getFleet()) * Long.BYTES);
+            game.restorePlayer(i, score, eliminated, words, buffer.asIntBuffer());
+        }
+        if (game.isFull())
+            game.restoreTurn(current, over, turn, version, lastVersion);
+        return new GameSnapshot(game, gameId, journalPosition);
+    }
+
+    /**
+     * Returns the number of longs of the hit state of a player with the given fleet
+     *
+     * @param fleet the fleet
+     * @return int The number of longs
+     * @pre fleet != null
+     */
+    private static int sunkWords(AvailableFleet fleet) {
+        return (fleet.shipCount() + 63) >>> 6;
+    }
+
+    /**
+     * Rounds the given number of bytes up to a multiple of 8, so that the longs
+     * after them are aligned
+     *
+     * @param bytes int that represents the number of bytes
+     * @return int The rounded number of bytes
+     * @pre bytes >= 0
+     */
+    private static int align(int bytes) {
+        return (bytes + Long.BYTES - 1) & -Long.BYTES;
+    }
+}
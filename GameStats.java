@@ -0,0 +1,213 @@
+/**
+ * GameStats class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/*
+ * Counters and latency histograms of the commands of a game session. Every run
+ * of a command is counted, but only one run in SAMPLE_INTERVAL of each command
+ * (the first one included) is timed, since reading the clock costs about as much
+ * as the cheapest commands. Each command has a histogram of BUCKETS buckets, where
+ * bucket b counts the timed runs that took from 2^b to 2^(b+1) - 1 nanoseconds, so
+ * recording a run is a few array increments and never allocates. Percentiles are
+ * read from the histogram, as the upper bound of the bucket they fall in, so they
+ * are exact to a factor of 2, and the maximum is the longest timed run, so the
+ * report labels both as sampled: a slow run that was not timed is not in them.
+ * The report can also be written to a file at a fixed interval. The stats are
+ * never worth losing a game for: if the file can not be written, the error is
+ * reported once on the standard error and the game goes on. The interval is
+ * checked once every SAMPLE_INTERVAL commands of any kind, counted separately from
+ * the timed runs, so the report is written on time whichever commands are run, and
+ * no other thread ever reads the counters.
+ */
+public class GameStats {
+    // constants of GameStats Class
+    private static final int BUCKETS = 64; // one per bit of a long
+    private static final int SAMPLE_INTERVAL = 16; // a power of 2
+    private static final String HEADER_MESSAGE = "Command count sampled-p50 sampled-p99 sampled-max (ns, 1 in "
+            + SAMPLE_INTERVAL + " runs timed)";
+    private static final String DUMP_ERROR_MESSAGE = "Could not write the stats to %s: %s%n";
+    private static final String SHOTS_MESSAGE = "Shots: ";
+    private static final String HITS_MESSAGE = " hits, "; // after the number of hits
+    private static final String MISSES_MESSAGE = " misses, ";
+    private static final String REPEATS_MESSAGE = " repeated";
+    private static final String ELIMINATIONS_MESSAGE = "Eliminations: ";
+    // variables of GameStats Class
+    private final String[] commands; // name of each command, by its number
+    private final long[] counts; // runs of each command
+    private final long[] timed; // timed runs of each command
+    private final long[] maxima; // longest timed run of each command
+    private final long[][] histograms; // timed runs of each command, by bucket
+    private long start; // when the run being timed started
+    private long recorded; // runs of all the commands
+    private long hits;
+    private long misses;
+    private long repeats;
+    private long eliminations;
+    private String dumpFile; // null if the report is not written to a file
+    private long dumpInterval;
+    private long nextDump; // time of the next write of the report
+    private boolean dumpFailed; // whether an error writing the report was reported
+
+    /**
+     * Constructor for GameStats
+     * Creates new empty GameStats for the given commands.
+     *
+     * @param commands the name of each command, by its number
+     * @pre commands != null
+     */
+    public GameStats(String[] commands) {
+        this.commands = commands;
+        counts = new long[commands.length];
+        timed = new long[commands.length];
+        maxima = new long[commands.length];
+        histograms = new long[commands.length][BUCKETS];
+        dumpFile = null;
+        dumpFailed = false;
+    }
+
+    /**
+     * Writes the report to the given file every given interval, replacing what the
+     * file had
+     *
+     * @param fileName       the name of the file
+     * @param intervalMillis long that represents the interval, in milliseconds
+     * @pre fileName != null && intervalMillis > 0
+     */
+    public void dumpEvery(String fileName, long intervalMillis) {
+        dumpFile = fileName;
+        dumpInterval = intervalMillis * 1_000_000;
+        nextDump = System.nanoTime() + dumpInterval;
+    }
+
+    /**
+     * Starts a run of the given command, reading the clock if the run is timed
+     *
+     * @param command int that represents the number of the command
+     * @pre command >= 0 && command < number of commands
+     */
+    public void startCommand(int command) {
+        if ((counts[command] & (SAMPLE_INTERVAL - 1)) == 0)
+            start = System.nanoTime();
+    }
+
+    /**
+     * Records the end of the run of the given command started last, and writes the
+     * report to its file if it is time to
+     *
+     * @param command int that represents the number of the command
+     * @pre startCommand(command) was the last run started
+     */
+    public void endCommand(int command) {
+        if ((counts[command]++ & (SAMPLE_INTERVAL - 1)) == 0) {
+            long end = System.nanoTime();
+            long nanos = Math.max(1, end - start);
+            timed[command]++;
+            if (nanos > maxima[command])
+                maxima[command] = nanos;
+            histograms[command][63 - Long.numberOfLeadingZeros(nanos)]++;
+        }
+        if (dumpFile != null && (++recorded & (SAMPLE_INTERVAL - 1)) == 0) {
+            long now = System.nanoTime();
+            if (now - nextDump >= 0) {
+                nextDump = now + dumpInterval;
+                dump();
+            }
+        }
+    }
+
+    /**
+     * Records the result of a shot
+     *
+     * @param length     int that represents the result, as returned by Game.shoot
+     * @param eliminated boolean that represents whether the shot eliminated its target
+     */
+    public void recordShot(int length, boolean eliminated) {
+        if (length > 0)
+            hits++;
+        else if (length == 0)
+            misses++;
+        else
+            repeats++;
+        if (eliminated)
+            eliminations++;
+    }
+
+    /**
+     * Writes the report: a line per command that was run, with its count and the
+     * latencies of its timed runs, then the results of the shots
+     *
+     * @param out the writer to which the report is written
+     * @pre out != null
+     */
+    public void write(CommandWriter out) {
+        out.println(HEADER_MESSAGE);
+        for (int i = 0; i < commands.length; i++)
+            if (counts[i] > 0) {
+                out.print(commands[i]);
+                out.print(" ");
+                out.print(counts[i]);
+                out.print(" ");
+                out.print(percentile(i, 50));
+                out.print(" ");
+                out.print(percentile(i, 99));
+                out.print(" ");
+                out.print(maxima[i]);
+                out.newLine();
+            }
+        out.print(SHOTS_MESSAGE);
+        out.print(hits);
+        out.print(HITS_MESSAGE);
+        out.print(misses);
+        out.print(MISSES_MESSAGE);
+        out.print(repeats);
+        out.println(REPEATS_MESSAGE);
+        out.print(ELIMINATIONS_MESSAGE);
+        out.print(eliminations);
+        out.newLine();
+    }
+
+    /**
+     * Writes the report to its file, replacing what the file had. If the file can
+     * not be written, the first error is reported on the standard error, and the
+     * report is written again at the next interval.
+     *
+     * @pre dumpEvery was called
+     */
+    public void dump() {
+        try (FileOutputStream file = new FileOutputStream(dumpFile)) {
+            CommandWriter out = new CommandWriter(file);
+            write(out);
+            out.flush();
+        } catch (IOException | UncheckedIOException e) { // the writer wraps the errors of its flush
+            if (!dumpFailed)
+                System.err.printf(DUMP_ERROR_MESSAGE, dumpFile, e.getMessage());
+            dumpFailed = true;
+        }
+    }
+
+    /**
+     * Returns the given percentile of the latencies of the given command, as the
+     * upper bound of the bucket it falls in, but never more than the longest run
+     *
+     * @param command int that represents the number of the command
+     * @param percent int that represents the percentile
+     * @return long The percentile, in nanoseconds
+     * @pre timed[command] > 0 && percent > 0 && percent <= 100
+     */
+    private long percentile(int command, int percent) {
+        long rank = (timed[command] * percent + 99) / 100; // runs at or below the percentile
+        int bucket = 0;
+        for (long seen = histograms[command][0]; seen < rank; seen += histograms[command][bucket])
+            bucket++;
+        return bucket == BUCKETS - 1 ? maxima[command] : Math.min(maxima[command], (2L << bucket) - 1);
+    }
+}
@@ -0,0 +1,277 @@
+/**
+ * Heatmap class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.util.Arrays;
+
+/*
+ * Placement density of one board: the weight of a cell is the number of ways a
+ * ship of the fleet that was not sunk yet can lie over it, in a straight line,
+ * without covering a cell that is already known (shot at, or part of a sunk ship).
+ * A horizontal ship lies inside the run of unknown cells of its row, so the
+ * horizontal weight of a cell only depends on its position in that run and on the
+ * length of the run, and the same for columns. When a cell becomes known it only
+ * splits its row run and its column run, so only the cells of those two runs are
+ * weighed again. The ships not sunk yet are kept as their distinct lengths and
+ * the number of ships of each, so weighing a cell takes one step per distinct
+ * length; sinking a ship changes the weight of every cell, so the whole board is
+ * weighed again, once per ship sunk.
+ * The weights are the leaves of a max segment tree, so the heaviest cell is found
+ * in O(log cells) and each change costs O(log cells). Known cells and the padding
+ * of the tree weigh -1, so they are never the heaviest while any cell is unknown.
+ */
+public class Heatmap {
+    // constants of Heatmap Class
+    private static final int KNOWN = -1;
+    // variables of Heatmap Class
+    private int rows;
+    private int cols;
+    private int[] lengths; // distinct lengths of the ships not sunk yet
+    private int[] counts; // number of ships not sunk yet of each length
+    private int kinds; // distinct lengths in use
+    private int[] horizontal; // horizontal weight of each cell, row * cols + col
+    private int[] vertical; // vertical weight of each cell
+    private int[] tree; // max segment tree, leaves from leaves on
+    private int leaves; // number of leaves, a power of two
+
+    /**
+     * Constructor for Heatmap
+     * Creates a new empty Heatmap, to be reset before it is used.
+     */
+    public Heatmap() {
+        lengths = new int[0];
+        counts = new int[0];
+        kinds = 0;
+        horizontal = new int[0];
+        vertical = new int[0];
+        tree = new int[2];
+        leaves = 1;
+    }
+
+    /**
+     * Resets the heatmap to the board of the given fleet, where no cell is known and
+     * no ship is sunk. The arrays are reused if they are large enough.
+     *
+     * @param fleet the fleet of the board
+     * @pre fleet != null
+     */
+    public void reset(AvailableFleet fleet) {
+        rows = fleet.maxRow();
+        cols = fleet.maxCol();
+        int cells = rows * cols;
+        if (horizontal.length < cells) {
+            horizontal = new int[cells];
+            vertical = new int[cells];
+        }
+        if (lengths.length < fleet.shipCount()) {
+            lengths = new int[fleet.shipCount()];
+            counts = new int[fleet.shipCount()];
+        }
+        kinds = 0;
+        for (int ship = 0; ship < fleet.shipCount(); ship++) {
+            int kind = 0;
+            while (kind < kinds && lengths[kind] != fleet.shipLength(ship))
+                kind++;
+            if (kind == kinds) {
+                lengths[kinds] = fleet.shipLength(ship);
+                counts[kinds++] = 0;
+            }
+            counts[kind]++;
+        }
+        leaves = Integer.highestOneBit(Math.max(1, cells - 1)) << 1;
+        if (tree.length < 2 * leaves)
+            tree = new int[2 * leaves];
+        Arrays.fill(tree, leaves, leaves + cells, 0); // every cell is unknown
+        for (int i = leaves + cells; i < 2 * leaves; i++)
+            tree[i] = KNOWN;
+        weighAll();
+    }
+
+    /**
+     * Marks the given cell as known and weighs again the cells of its row run and
+     * of its column run
+     *
+     * @param row int that represents the row of the cell, starting at 0
+     * @param col int that represents the column of the cell, starting at 0
+     * @pre row >= 0 && row < rows && col >= 0 && col < cols
+     */
+    public void markKnown(int row, int col) {
+        int cell = row * cols + col;
+        if (tree[leaves + cell] != KNOWN) {
+            update(cell, KNOWN);
+            int left = col; // the row run is from left to right, exclusive
+            while (left > 0 && tree[leaves + cell - (col - left) - 1] != KNOWN)
+                left--;
+            int right = col + 1;
+            while (right < cols && tree[leaves + row * cols + right] != KNOWN)
+                right++;
+            weighRow(row, left, col);
+            weighRow(row, col + 1, right);
+            int top = row;
+            while (top > 0 && tree[leaves + (top - 1) * cols + col] != KNOWN)
+                top--;
+            int bottom = row + 1;
+            while (bottom < rows && tree[leaves + bottom * cols + col] != KNOWN)
+                bottom++;
+            weighColumn(col, top, row);
+            weighColumn(col, row + 1, bottom);
+        }
+    }
+
+    /**
+     * Marks the cells of the given ship as known and removes it from the ships not
+     * sunk yet, then weighs the whole board again
+     *
+     * @param row      int that represents the row of the first cell of the ship, starting at 0
+     * @param col      int that represents the column of the first cell of the ship, starting at 0
+     * @param length   int that represents the length of the ship
+     * @param vertical boolean that represents whether the ship goes down from its first cell
+     * @pre the ship is on the board && a ship of that length was not sunk yet
+     */
+    public void sinkShip(int row, int col, int length, boolean vertical) {
+        for (int i = 0; i < length; i++)
+            tree[leaves + (vertical ? (row + i) * cols + col : row * cols + col + i)] = KNOWN;
+        int kind = 0;
+        while (lengths[kind] != length)
+            kind++;
+        if (--counts[kind] == 0) { // the last length takes its place
+            lengths[kind] = lengths[--kinds];
+            counts[kind] = counts[kinds];
+        }
+        weighAll();
+    }
+
+    /**
+     * This method returns the heaviest cell that is not known yet
+     *
+     * @return int The cell, as row * columns + column
+     * @pre some cell is not known
+     */
+    public int heaviest() {
+        int node = 1;
+        while (node < leaves)
+            node = tree[2 * node] >= tree[2 * node + 1] ? 2 * node : 2 * node + 1;
+        return node - leaves;
+    }
+
+    /**
+     * This method returns the weight of the heaviest cell that is not known yet
+     *
+     * @return int The weight, or -1 if every cell is known
+     */
+    public int maxWeight() {
+        return tree[1];
+    }
+
+    /**
+     * This method returns the number of columns of the board
+     *
+     * @return int Number of columns
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * Weighs again every cell that is not known, run by run, and then the whole tree
+     */
+    private void weighAll() {
+        for (int i = 0; i < rows; i++)
+            for (int j = 0; j < cols;) {
+                int from = j;
+                while (j < cols && tree[leaves + i * cols + j] != KNOWN)
+                    j++;
+                for (int k = from; k < j; k++)
+                    horizontal[i * cols + k] = placements(k - from, j - from);
+                j++; // skips the known cell that ends the run
+            }
+        for (int j = 0; j < cols; j++)
+            for (int i = 0; i < rows;) {
+                int from = i;
+                while (i < rows && tree[leaves + i * cols + j] != KNOWN)
+                    i++;
+                for (int k = from; k < i; k++)
+                    vertical[k * cols + j] = placements(k - from, i - from);
+                i++;
+            }
+        for (int cell = 0; cell < rows * cols; cell++)
+            if (tree[leaves + cell] != KNOWN)
+                tree[leaves + cell] = horizontal[cell] + vertical[cell];
+        for (int i = leaves - 1; i > 0; i--)
+            tree[i] = Math.max(tree[2 * i], tree[2 * i + 1]);
+    }
+
+    /**
+     * Weighs again the horizontal weight of the cells of a run of unknown cells
+     *
+     * @param row  int that represents the row of the run
+     * @param from int that represents the first column of the run
+     * @param to   int that represents the column after the last one of the run
+     * @pre every cell of the run is unknown
+     */
+    private void weighRow(int row, int from, int to) {
+        for (int j = from; j < to; j++) {
+            int cell = row * cols + j;
+            horizontal[cell] = placements(j - from, to - from);
+            update(cell, horizontal[cell] + vertical[cell]);
+        }
+    }
+
+    /**
+     * Weighs again the vertical weight of the cells of a run of unknown cells
+     *
+     * @param col  int that represents the column of the run
+     * @param from int that represents the first row of the run
+     * @param to   int that represents the row after the last one of the run
+     * @pre every cell of the run is unknown
+     */
+    private void weighColumn(int col, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int cell = i * cols + col;
+            vertical[cell] = placements(i - from, to - from);
+            update(cell, horizontal[cell] + vertical[cell]);
+        }
+    }
+
+    /**
+     * Returns the number of ways a ship not sunk yet can lie inside a run of the
+     * given length over the cell in the given position of the run
+     *
+     * @param position int that represents the position of the cell in the run
+     * @param length   int that represents the length of the run
+     * @return int The number of placements
+     * @pre position >= 0 && position < length
+     */
+    private int placements(int position, int length) {
+        int count = 0;
+        for (int kind = 0; kind < kinds; kind++) {
+            int l = lengths[kind];
+            if (l <= length)
+                count += counts[kind] * (Math.min(position, length - l) - Math.max(0, position - l + 1) + 1);
+        }
+        return count;
+    }
+
+    /**
+     * Sets the weight of the given cell and updates its ancestors in the tree
+     *
+     * @param cell   int that represents the cell
+     * @param weight int that represents its new weight
+     * @pre cell >= 0 && cell < rows * cols
+     */
+    private void update(int cell, int weight) {
+        int node = leaves + cell;
+        tree[node] = weight;
+        for (node >>= 1; node > 0; node >>= 1) {
+            int max = Math.max(tree[2 * node], tree[2 * node + 1]);
+            if (tree[node] == max)
+                break; // the ancestors do not change either
+            tree[node] = max;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Leaderboard class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+public class Leaderboard {
+    // variables of Leaderboard Class
+    private final PlayerStore players;
+    private final int[] ranking; // positions of the players in the store, by rank
+    private int size;
+
+    /**
+     * Constructor for Leaderboard
+     * Creates a new empty Leaderboard of players of the given store.
+     *
+     * @param players The store of the players
+     * @pre players != null
+     */
+    public Leaderboard(PlayerStore players) {
+        this.players = players;
+        ranking = new int[players.capacity()];
+        size = 0;
+    }
+
+    /**
+     * Adds the player in the given position of the store to the leaderboard, in
+     * its place in the ranking
+     *
+     * @param player int that represents the position of the player to add
+     * @pre size < ranking.length && player is not in the leaderboard
+     */
+    public void add(int player) {
+        int position = insertionPoint(player, 0, size);
+        System.arraycopy(ranking, position, ranking, position + 1, size - position);
+        ranking[position] = player;
+        size++;
+    }
+
+    /**
+     * Adds the given value to the score of the given player and moves the player
+     * to its new place in the ranking.
+     * Both places are found with a binary search, and only the players between them are shifted.
+     *
+     * @param player int that represents the position of the player whose score changes
+     * @param score  int that represents the score to add or subtract
+     * @pre player is in the leaderboard
+     */
+    public void updateScore(int player, int score) {
+        int from = insertionPoint(player, 0, size); // the player itself is the first one not before it
+        players.updateScore(player, score);
+        if (score > 0) { // moves up, over the players that are now after it
+            int to = insertionPoint(player, 0, from);
+            System.arraycopy(ranking, to, ranking, to + 1, from - to);
+            ranking[to] = player;
+        } else if (score < 0) { // moves down, under the players that are now before it
+            int to = insertionPoint(player, from + 1, size) - 1;
+            System.arraycopy(ranking, from + 1, ranking, from, to - from);
+            ranking[to] = player;
+        }
+    }
+
+    /**
+     * Returns an iterator over the live ranking, without copying or sorting it
+     *
+     * @return OrderedPlayerList The iterator for the players ordered by score
+     * @pre ranking != null
+     */
+    public OrderedPlayerList iterator() {
+        return new OrderedPlayerList(players, ranking, size);
+    }
+
+    /**
+     * Returns an iterator over the first players of the live ranking, without
+     * copying or sorting it
+     *
+     * @param count int that represents the number of players
+     * @return OrderedPlayerList The iterator for the first count players, or every
+     *         player if there are fewer
+     * @pre count >= 0
+     */
+    public OrderedPlayerList iterator(int count) {
+        return new OrderedPlayerList(players, ranking, Math.min(count, size));
+    }
+
+    /**
+     * Returns the first position between from (inclusive) and to (exclusive) whose
+     * player is not ranked before the given player
+     *
+     * @param player int that represents the position in the store of the player to place
+     * @param from   int that represents the first position to search
+     * @param to     int that represents the position after the last one to search
+     * @return int The position where the player belongs
+     * @pre 0 <= from <= to <= size
+     */
+    private int insertionPoint(int player, int from, int to) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (isRankedBefore(ranking[middle], player))
+                from = middle + 1;
+            else
+                to = middle;
+        }
+        return from;
+    }
+
+    /**
+     * Checks if a player is ranked before another one.
+     * Players are ordered by score in descending order and, with the same score,
+     * by name in ascending order.
+     *
+     * @param first  int that represents the position in the store of the first player
+     * @param second int that represents the position in the store of the second player
+     * @return boolean Whether first is ranked before second
+     */
+    private boolean isRankedBefore(int first, int second) {
+        if (players.score(first) != players.score(second))
+            return players.score(first) > players.score(second);
+        return players.name(first).compareTo(players.name(second)) < 0;
+    }
+}
@@ -9,19 +9,24 @@
 public class OrderedPlayerList {
     // variables of OrderedPlayerList Class
     private int nextIndex;
-    private final Player[] players;
+    private final PlayerStore players;
+    private final int[] order; // positions of the players in the store, in order
     private final int sizePlayers;
 
     /**
      * Constructor for OrderedPlayerList
-     * Creates a new OrderedPlayerList with the given array of players.
+     * Creates a new OrderedPlayerList over the first sizePlayers positions of the
+     * given order, which is already ordered by score and is not copied.
      * 
-     * @param players The array of players
-     * @pre players != null
+     * @param players     The store of the players
+     * @param order       The positions of the players in the store, ordered by score
+     * @param sizePlayers The number of players to iterate
+     * @pre players != null && order != null && sizePlayers >= 0 && sizePlayers <= order.length
      */
-    public OrderedPlayerList(Player[] players) {
+    public OrderedPlayerList(PlayerStore players, int[] order, int sizePlayers) {
         this.players = players;
-        sizePlayers = players.length; // sizePlayers is initialized with the length of the array players
+        this.order = order;
+        this.sizePlayers = sizePlayers;
         nextIndex = 0; // nextIndex is initialized with 0
     }
 
@@ -42,6 +47,6 @@ public class OrderedPlayerList {
      * @pre nextIndex >= 0 && hasNextPlayer() && players != null
      */
     public Player nextPlayer() {
-        return players[nextIndex++];
+        return players.get(order[nextIndex++]);
     }
 }
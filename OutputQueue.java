@@ -0,0 +1,140 @@
+/**
+ * OutputQueue class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Arrays;
+
+/*
+ * Output of a connection that is not written yet, kept in direct chunks of
+ * CHUNK_SIZE bytes. Every flush of the CommandWriter of the connection is copied
+ * at the end of the last chunk, going on in a new one when it is full, and every
+ * pending chunk is sent to the channel with a single gathering write. A chunk that
+ * was fully written is kept for the next flushes, up to SPARE_CHUNKS of them, so a
+ * connection whose client keeps up allocates nothing once it has its first chunks.
+ * Each pending chunk has the bytes not written yet from its position to its limit,
+ * and bytes are appended after its limit.
+ */
+public class OutputQueue extends OutputStream {
+    // constants of OutputQueue Class
+    private static final int CHUNK_SIZE = 8192;
+    private static final int INITIAL_CHUNKS = 8;
+    private static final int SPARE_CHUNKS = 4;
+    // variables of OutputQueue Class
+    private ByteBuffer[] chunks; // pending chunks, from head on
+    private int head; // first chunk not fully written
+    private int count; // number of pending chunks
+    private final ByteBuffer[] spares; // chunks fully written, to be used again
+    private int spareCount;
+
+    /**
+     * Constructor for OutputQueue
+     * Creates a new empty OutputQueue.
+     */
+    public OutputQueue() {
+        chunks = new ByteBuffer[INITIAL_CHUNKS];
+        head = 0;
+        count = 0;
+        spares = new ByteBuffer[SPARE_CHUNKS];
+        spareCount = 0;
+    }
+
+    /**
+     * Checks if every byte of the queue was written
+     *
+     * @return boolean Whether the queue is empty
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Appends the given byte to the queue
+     *
+     * @param b int whose low byte is appended
+     */
+    @Override
+    public void write(int b) {
+        ByteBuffer last = lastChunk();
+        last.limit(last.limit() + 1).put(last.limit() - 1, (byte) b);
+    }
+
+    /**
+     * Appends a copy of the given bytes to the queue.
+     * The bytes are copied because the CommandWriter reuses its buffer.
+     *
+     * @param bytes  The bytes to append
+     * @param offset int that represents the position of the first byte
+     * @param length int that represents the number of bytes
+     * @pre bytes != null && offset >= 0 && length >= 0
+     */
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            ByteBuffer last = lastChunk();
+            int end = last.limit();
+            int n = Math.min(length, last.capacity() - end);
+            last.limit(end + n).put(end, bytes, offset, n);
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Writes as many pending bytes as the channel takes, with one gathering write,
+     * and keeps the chunks that were fully written for the next flushes
+     *
+     * @param channel The channel where the bytes are written
+     * @return boolean Whether the queue is now empty
+     * @throws IOException if the channel can not be written
+     * @pre channel != null
+     */
+    public boolean writeTo(GatheringByteChannel channel) throws IOException {
+        if (count > 0) {
+            channel.write(chunks, head, count);
+            while (count > 0 && !chunks[head].hasRemaining()) {
+                if (spareCount < spares.length)
+                    spares[spareCount++] = chunks[head].clear().limit(0);
+                chunks[head++] = null;
+                count--;
+            }
+            if (count == 0)
+                head = 0;
+        }
+        return count == 0;
+    }
+
+    /**
+     * Returns the last pending chunk, with room for at least one byte after its
+     * limit, adding a spare or a new chunk to the queue if there is none
+     *
+     * @return ByteBuffer The chunk
+     */
+    private ByteBuffer lastChunk() {
+        ByteBuffer last = count > 0 ? chunks[head + count - 1] : null;
+        if (last == null || last.limit() == last.capacity()) {
+            last = spareCount > 0 ? spares[--spareCount] : ByteBuffer.allocateDirect(CHUNK_SIZE).limit(0);
+            if (head + count == chunks.length) { // if there is no room after the last chunk
+                if (count * 2 > chunks.length) { // if the queue is more than half full, doubles its size
+                    ByteBuffer[] aux = new ByteBuffer[chunks.length * 2];
+                    System.arraycopy(chunks, head, aux, 0, count);
+                    chunks = aux;
+                } else { // otherwise moves the pending chunks to the start
+                    System.arraycopy(chunks, head, chunks, 0, count);
+                    Arrays.fill(chunks, count, head + count, null);
+                }
+                head = 0;
+            }
+            chunks[head + count++] = last;
+        }
+        return last;
+    }
+}
@@ -6,53 +6,56 @@
  *
  */
 
+// imports
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/*
+ * View of one player of a PlayerStore, where the state of every player of a game
+ * is kept in columns. A Player only knows its store and its position in it.
+ */
 public class Player {
-    // constants of Player Class
-    private static final char HIT = '*';
-    private static final char EMPTY = '.';
-    private static final String LEFT = "left";
-    private static final String RIGHT = "right";
-    private static final String UP = "up";
-    private static final String DOWN = "down";
-    private static final String[] directions = { LEFT, RIGHT, UP, DOWN };
     // variables of Player Class
-    private final String name;
-    private int score;
-    private boolean hasBeenEliminated;
-    private final char[][] originalBoard;
-    private char[][] board;
+    private final PlayerStore store;
+    private final int position;
 
     /**
      * Constructor for Player
-     * Creates a new Player with the given name and fleet.
+     * Creates a new Player with the given name and fleet, alone in a store of its own.
+     * The fleet is not copied, the player only keeps which of its ships were hit.
      *
      * @param name  Name of the player
-     * @param fleet Array of arrays of chars that represents the fleet of the player
-     * @pre name != null && fleet != null && fleet.length > 0
+     * @param fleet The fleet chosen by the player
+     * @pre name != null && fleet != null
      */
-    public Player(String name, char[][] fleet) {
-        this.name = name; // name of the player
-        score = 0; // initial score of the player with value 0
-        hasBeenEliminated = false; // initial value of the variable hasBeenEliminated with value false
-
-        board = new char[fleet.length][fleet[0].length]; // board of the player, copy the fleet
-        for (int i = 0; i < maxRow(); i++)
-            System.arraycopy(fleet[i], 0, board[i], 0, maxCol());
+    public Player(String name, AvailableFleet fleet) {
+        PlayerStore own = new PlayerStore(1);
+        own.add(name, fleet);
+        store = own;
+        position = 0;
+    }
 
-        originalBoard = new char[fleet.length][fleet[0].length]; // originalBoard of the player, copy the fleet
-        for (int i = 0; i < maxRow(); i++)
-            System.arraycopy(fleet[i], 0, originalBoard[i], 0, maxCol());
+    /**
+     * Constructor for Player
+     * Creates a new view of the player in the given position of the given store.
+     *
+     * @param store    The store of the player
+     * @param position The position of the player in the store
+     * @pre store != null && position >= 0 && position < store.capacity()
+     */
+    public Player(PlayerStore store, int position) {
+        this.store = store;
+        this.position = position;
     }
 
     /**
-     * This method receives an int called score and adds or subtracts the value to
-     * the player's score
-     * 
-     * @param score int that represents the score to add or subtract
-     * @pre score != null
+     * This method returns the position of the player in its store, the order in
+     * which it was added
+     *
+     * @return int The position of the player
      */
-    public void updateScore(int score) {
-        this.score += score;
+    public int getPosition() {
+        return position;
     }
 
     /**
@@ -61,7 +64,7 @@ public class Player {
      * @return int The player's score
      */
     public int getScore() {
-        return score;
+        return store.score(position);
     }
 
     /**
@@ -71,63 +74,45 @@ public class Player {
      * @pre name != null
      */
     public String getName() {
-        return name;
+        return store.name(position);
     }
 
     /**
-     * This method returns the board of the player
+     * This method returns the player's board rendered as text, each row followed by
+     * a new line.
+     * The rendering is kept between calls and only the rows changed since the last
+     * call are rendered again.
      *
-     * @return char[][] The player's board
-     * @pre board != null
+     * @return byte[] The player's board, one byte per cell
      */
-    public char[][] getFleet() {
-        return board;
+    public byte[] renderFleet() {
+        return store.renderFleet(position);
     }
 
     /**
-     * Checks if the player has the given name
+     * Returns the cells of the player's board that were hit after the given number
+     * of turns, as spans of consecutive cells of a row ordered by row and column
      *
-     * @param name String that represents the name to check
-     * @return boolean Whether the player has the given name
-     * @pre name != null && this.name != null
+     * @param turn int that represents the number of turns
+     * @return int[] The spans, each as its row, its first column and its length,
+     *               starting at 0
+     * @pre turn >= 0 && no turn after it was undone
      */
-    public boolean hasName(String name) {
-        return this.name.equals(name);
-    }
-
-    /**
-     * Eliminates the player
-     *
-     * @pre hasBeenEliminated != null
-     */
-    public void eliminatePlayer() {
-        hasBeenEliminated = true;
+    public int[] changedSince(int turn) {
+        return store.changedSince(position, turn);
     }
 
     /**
      * Checks if the player has been eliminated
      * 
      * @return boolean Whether the player has been eliminated
-     * @pre hasBeenEliminated != null
      */
     public boolean isEliminated() {
-        return hasBeenEliminated;
+        return store.isEliminated(position);
     }
 
     /**
-     * Updates the given position in the board with the value HIT
-     * 
-     * @param row int that represents the number of rows
-     * @param col int that represents the number of columns
-     * @pre row >= 0 && col >= 0 && row < maxRow() && col < maxCol() && board !=
-     *      null
-     */
-    public void updateBoard(int row, int col) {
-        board[row][col] = HIT;
-    }
-
-    /**
-     * This method receives an array called position and returns the length of the
+     * This method receives the position of a shot and returns the length of the
      * ship that was hit,
      * or the negative length of the ship that was already hit,
      * or 0 if the position is empty
@@ -136,109 +121,76 @@ public class Player {
      * @param col int that represents the column of the position to take the hit
      * @return int Length of the ship that was hit, or the negative length of the
      *              ship that was already hit, or 0 if the position is empty
-     * @pre board != null && originalBoard != null && row != null && col != null
+     * @pre row != null && col != null
      */
     public int takeHit(int row, int col) {
-        int length = 0;
-        if (board[--row][--col] != EMPTY) { // --row and --col because the board index's starts at 0
-            int[] position = new int[] { row, col };
-            length += 1;
-            for (int i = 0; i < directions.length; i++)
-                length += chooseDir(directions[i], position, originalBoard[row][col]);
-            if (originalBoard[row][col] != board[row][col])
-                length = -length; // ship was already hit
-            else
-                updateBoard(row, col);
-        }
-        return length;
-    }
-
-    /**
-     * Checks the length of the ship that was hit in the given direction
-     * 
-     * @param direction String that represents the direction to check
-     * @param position  array that represents the position to take the hit
-     * @param target    char that represents the target to check for
-     * @return int Length of the ship that was hit in the given direction
-     * @pre direction != null && position != null && target != null && board != null
-     *      && originalBoard != null
-     */
-    private int chooseDir(String direction, int[] position, char target) {
-        int rowDelta = 0;
-        int colDelta = 0;
-
-        switch (direction) {
-            case LEFT -> colDelta = -1;
-            case RIGHT -> colDelta = 1;
-            case UP -> rowDelta = -1;
-            case DOWN -> rowDelta = 1;
-        }
+        return store.takeHit(position, row, col);
+    }
 
-        return checkDirection(position, target, rowDelta, colDelta);
+    /**
+     * This method returns the fleet of the player
+     *
+     * @return AvailableFleet The fleet chosen by the player
+     */
+    public AvailableFleet getFleet() {
+        return store.fleet(position);
     }
 
     /**
-     * Checks the length of the ship that was hit in the given direction
-     * It's an auxiliary method for the method ChooseDir (which is an
-     * auxiliary method for the method
-     * takeHit).
+     * Writes the hit state of the player, one bit per ship of its fleet, to the
+     * given buffer in a single bulk put
      *
-     * @param position array that represents the position to take the hit
-     * @param target   char that represents the target to check for
-     * @param rowDelta int that represents the row delta
-     * @param colDelta int that represents the column delta
-     * @return int
-     * @pre position != null && target != null && rowDelta != null
-     *      && colDelta != null && board != null && originalBoard != null
+     * @param out The buffer where the words are written
+     * @pre out != null && out.remaining() >= (getFleet().shipCount() + 63) / 64
      */
-    private int checkDirection(int[] position, char target, int rowDelta, int colDelta) {
-        int length = 0;
-        int row = position[0] + rowDelta;
-        int col = position[1] + colDelta;
+    public void writeSunkShips(LongBuffer out) {
+        store.writeSunkShips(position, out);
+    }
 
-        while (row >= 0 && row < maxRow() && col >= 0 && col < maxCol() &&
-                originalBoard[row][col] == target) {
-            length++;
-            updateBoard(row, col);
-            row += rowDelta;
-            col += colDelta;
-        }
+    /**
+     * Writes the turn in which each ship of the player was hit to the given buffer,
+     * one int per ship hit, in the order of the ships in the fleet
+     *
+     * @param out The buffer where the turns are written
+     * @pre out != null && out.remaining() >= sunkShipCount()
+     */
+    public void writeSinkTurns(IntBuffer out) {
+        store.writeSinkTurns(position, out);
+    }
 
-        return length;
+    /**
+     * This method returns the number of ships of the player that were hit
+     *
+     * @return int Number of ships hit
+     */
+    public int sunkShipCount() {
+        return store.sunkCount(position);
     }
 
     /**
      * Checks if all the ships of the player have been sunk
      *
      * @return boolean Whether all the ships of the player have been sunk
-     * @pre board != null
      */
     public boolean shipsSunk() {
-        boolean shipsSunk = true;
-        for (int i = 0; shipsSunk && i < maxRow(); i++)
-            for (int j = 0; shipsSunk && j < maxCol(); j++)
-                if (board[i][j] != HIT && board[i][j] != EMPTY)
-                    shipsSunk = false;
-        return shipsSunk;
+        return store.shipsSunk(position);
     }
 
     /**
      * This method returns the number of rows in board
      * 
      * @return int Number of rows in board
-     * @pre board != null
      */
     public int maxRow() {
-        return board.length;
+        return store.fleet(position).maxRow();
     }
 
     /**
      * This method returns the number of columns in board
      * 
      * @return int Number of columns in board
-     * @pre board != null
      */
     public int maxCol() {
-        return board[0].length;
+        return store.fleet(position).maxCol();
     }
 }
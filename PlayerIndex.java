@@ -0,0 +1,137 @@
+/**
+ * PlayerIndex class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.nio.charset.StandardCharsets;
+
+public class PlayerIndex {
+    // constants of PlayerIndex Class
+    public static final int NOT_FOUND = -1;
+    // variables of PlayerIndex Class
+    private final String[] names;
+    private final int[] positions;
+    // second table with the names encoded in UTF-8, to look up names read as bytes
+    private final byte[][] encodedNames;
+    private final int[] encodedPositions;
+    private final int mask;
+
+    /**
+     * Constructor for PlayerIndex
+     * Creates a new open-addressed hash table from names to positions with room
+     * for the given number of players.
+     * The table is kept at most half full, so probes stay short.
+     *
+     * @param nPlayers The number of players
+     * @pre nPlayers > 0
+     */
+    public PlayerIndex(int nPlayers) {
+        int capacity = Integer.highestOneBit(nPlayers) << 2; // power of two, at least twice nPlayers
+        names = new String[capacity];
+        positions = new int[capacity];
+        encodedNames = new byte[capacity][];
+        encodedPositions = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds the given name to the index with the given position
+     *
+     * @param name     The name of the player
+     * @param position The position of the player in the array of players
+     * @pre name != null && get(name) == NOT_FOUND && less than nPlayers names were added
+     */
+    public void put(String name, int position) {
+        int slot = hash(name.hashCode()) & mask;
+        while (names[slot] != null) // linear probing
+            slot = (slot + 1) & mask;
+        names[slot] = name;
+        positions[slot] = position;
+
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        slot = hash(hashBytes(encoded, 0, encoded.length)) & mask;
+        while (encodedNames[slot] != null)
+            slot = (slot + 1) & mask;
+        encodedNames[slot] = encoded;
+        encodedPositions[slot] = position;
+    }
+
+    /**
+     * Returns the position of the player with the given name
+     *
+     * @param name The name of the player
+     * @return int The position of the player, or NOT_FOUND if there is no player with that name
+     * @pre name != null
+     */
+    public int get(String name) {
+        int slot = hash(name.hashCode()) & mask;
+        while (names[slot] != null && !names[slot].equals(name))
+            slot = (slot + 1) & mask;
+        return names[slot] == null ? NOT_FOUND : positions[slot];
+    }
+
+    /**
+     * Returns the position of the player whose name, in UTF-8, is equal to the
+     * given bytes. Does not create a String.
+     *
+     * @param buffer The array that holds the name
+     * @param offset The position of the first byte of the name
+     * @param length The length of the name in bytes
+     * @return int The position of the player, or NOT_FOUND if there is no player with that name
+     * @pre buffer != null && offset >= 0 && length >= 0 && offset + length <= buffer.length
+     */
+    public int get(byte[] buffer, int offset, int length) {
+        int slot = hash(hashBytes(buffer, offset, length)) & mask;
+        while (encodedNames[slot] != null && !equalBytes(encodedNames[slot], buffer, offset, length))
+            slot = (slot + 1) & mask;
+        return encodedNames[slot] == null ? NOT_FOUND : encodedPositions[slot];
+    }
+
+    /**
+     * Returns the hash code of the given bytes
+     *
+     * @param buffer The array that holds the bytes
+     * @param offset The position of the first byte
+     * @param length The number of bytes
+     * @return int The hash code
+     * @pre buffer != null
+     */
+    private static int hashBytes(byte[] buffer, int offset, int length) {
+        int h = 0;
+        for (int i = offset; i < offset + length; i++)
+            h = 31 * h + buffer[i];
+        return h;
+    }
+
+    /**
+     * Checks if the given name is equal to the given bytes
+     *
+     * @param name   The encoded name
+     * @param buffer The array that holds the bytes
+     * @param offset The position of the first byte
+     * @param length The number of bytes
+     * @return boolean Whether they are equal
+     * @pre name != null && buffer != null
+     */
+    private static boolean equalBytes(byte[] name, byte[] buffer, int offset, int length) {
+        boolean equals = name.length == length;
+        for (int i = 0; equals && i < length; i++)
+            equals = name[i] == buffer[offset + i];
+        return equals;
+    }
+
+    /**
+     * Spreads the high bits of the given hash code into the low bits used to pick a slot
+     *
+     * @param h The hash code
+     * @return int The spread hash code
+     */
+    private static int hash(int h) {
+        h *= 0x9E3779B9; // golden ratio constant
+        return h ^ (h >>> 16);
+    }
+}
@@ -5,65 +5,76 @@
  * @author Alexandre Carvalho 67950 - 1º LEI
  *
  */
-public class PlayerList {
+
+// imports
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/*
+ * Live iterator over the non-eliminated players of a PlayerStore, in the order
+ * they were added. Nothing is copied: it walks the eliminations of the store, so
+ * a player eliminated before the iterator reaches it is skipped.
+ */
+public class PlayerList implements Iterator<Player> {
     // variables of PlayerList Class
-    private final Player[] players;
-    private int nextIndex;
+    private final PlayerStore players;
+    private int nextIndex; // position of the next player, or PlayerStore.NO_SURVIVOR
     private final int sizePlayers;
 
     /**
      * Constructor for PlayerList
-     * Creates a new PlayerList with the given array of players.
+     * Creates a new PlayerList over the players of the given store.
      * 
-     * @param players The array of players
+     * @param players The store of the players
+     * @pre players != null
      */
-    public PlayerList(Player[] players) {
+    public PlayerList(PlayerStore players) {
         this.players = players;
-        sizePlayers = players.length; // sizePlayers is initialized with the length of the array players
-        nextIndex = 0; // nextIndex is initialized with 0
-        advance(); // advance to the first non-eliminated player
-    }
-
-    /**
-     * Advances the index of the array players to the next non-eliminated player
-     *
-     * @pre nextIndex >= 0, sizePlayers >= 0 && players != null
-     */
-    private void advance() {
-        while (nextIndex < sizePlayers && !criterion(players[nextIndex]))
-            nextIndex++;
+        sizePlayers = players.size(); // sizePlayers is initialized with the number of players
+        nextIndex = players.nextSurvivor(0, sizePlayers); // the first non-eliminated player
     }
 
     /**
      * This method checks if there is a next player
      *
      * @return boolean Whether there is a next player
-     * @pre nextIndex >= 0, sizePlayers >= 0
      */
     public boolean hasNextPlayer() {
-        return (nextIndex < sizePlayers);
+        return nextIndex != PlayerStore.NO_SURVIVOR;
     }
 
     /**
      * This method returns the next player
      * 
      * @return Player The next player
-     * @pre nextIndex >= 0 && hasNextPlayer() && players != null
+     * @pre hasNextPlayer()
      */
     public Player nextPlayer() {
-        Player player = players[nextIndex++];
-        advance();
+        Player player = players.get(nextIndex);
+        nextIndex = players.nextSurvivor(nextIndex + 1, sizePlayers);
         return player;
     }
 
     /**
-     * This method checks if the player isn't eliminated
-     * 
-     * @param player The player to check
-     * @return boolean Whether the player is not eliminated
-     * @pre player != null
+     * This method checks if there is a next player, as hasNextPlayer
+     *
+     * @return boolean Whether there is a next player
+     */
+    @Override
+    public boolean hasNext() {
+        return hasNextPlayer();
+    }
+
+    /**
+     * This method returns the next player, as nextPlayer
+     *
+     * @return Player The next player
+     * @throws NoSuchElementException if there is no next player
      */
-    public boolean criterion(Player player) {
-        return !player.isEliminated();
+    @Override
+    public Player next() {
+        if (!hasNextPlayer())
+            throw new NoSuchElementException();
+        return nextPlayer();
     }
 }
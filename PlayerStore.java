@@ -0,0 +1,667 @@
+/**
+ * PlayerStore class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/*
+ * Columnar storage of the players of a game: each field of the players is a
+ * parallel array indexed by the position of the player, in the order they were
+ * added, so a scan over one field (the scores, the eliminations) reads one
+ * contiguous array instead of an object per player.
+ *   names         the table of names, each name kept once and referred to by position
+ *   scores        int per player
+ *   eliminated    one bit per player
+ *   fleets        the fleet of each player, shared by every player that chose it
+ *   sunkWords     the hit state of every player, one bit per ship of its fleet,
+ *                 packed one after the other, from sunkOffsets[position]
+ *   sinkTurns     the turn in which each ship of every player was hit, counted from
+ *                 the start of the game even if it was restored from a snapshot,
+ *                 packed one after the other from shipOffsets[position], or NEVER
+ *   sinkOrder     the ships of every player in the order they were hit, in the
+ *                 same places as sinkTurns, the first sinkCounts[position] in use
+ *   unsunkCells   cells of the ships of each player not hit yet
+ *   rendered      rendering of each board for the fleet command, created on the
+ *                 first call, with dirtyRows marking the rows to render again
+ * A Player is a view of one position of the store, created once when the player
+ * is added.
+ * A ship is hit once and then stays hit, so the board of a player at any past turn
+ * is the board with the ships hit before that turn: keeping the turn of each hit is
+ * enough to render any version of any board, in one int per ship, without copying
+ * a board per turn. Undoing a turn clears the ships hit in it, which are the last
+ * ones of sinkOrder, and sinkOrder gives the ships hit since any turn without
+ * going through the ships that were not.
+ */
+public class PlayerStore {
+    // constants of PlayerStore Class
+    private static final char HIT = '*';
+    private static final char EMPTY = '.';
+    private static final byte NEWLINE = '\n';
+    private static final int INITIAL_WORDS = 16;
+    private static final int NEVER = Integer.MAX_VALUE; // turn of a ship not hit
+    public static final int NO_SURVIVOR = -1;
+    // variables of PlayerStore Class
+    private final String[] names;
+    private final int[] scores;
+    private final long[] eliminated;
+    private final AvailableFleet[] fleets;
+    private final int[] sunkOffsets;
+    private long[] sunkWords;
+    private int wordCount; // words of sunkWords in use
+    private final int[] shipOffsets;
+    private int[] sinkTurns;
+    private int[] sinkOrder;
+    private final int[] sinkCounts;
+    private int shipCount; // ships of sinkTurns in use
+    private int turn; // turns played so far
+    private final int[] unsunkCells;
+    private final byte[][] rendered;
+    private final long[][] dirtyRows;
+    private final Player[] views;
+    private int size;
+
+    /**
+     * Constructor for PlayerStore
+     * Creates a new empty PlayerStore with room for the given number of players.
+     *
+     * @param nPlayers The number of players
+     * @pre nPlayers > 0
+     */
+    public PlayerStore(int nPlayers) {
+        names = new String[nPlayers];
+        scores = new int[nPlayers];
+        eliminated = new long[(nPlayers + 63) >>> 6];
+        fleets = new AvailableFleet[nPlayers];
+        sunkOffsets = new int[nPlayers];
+        sunkWords = new long[INITIAL_WORDS];
+        wordCount = 0;
+        shipOffsets = new int[nPlayers];
+        sinkTurns = new int[INITIAL_WORDS];
+        sinkOrder = new int[INITIAL_WORDS];
+        sinkCounts = new int[nPlayers];
+        shipCount = 0;
+        turn = 0;
+        unsunkCells = new int[nPlayers];
+        rendered = new byte[nPlayers][];
+        dirtyRows = new long[nPlayers][];
+        views = new Player[nPlayers];
+        size = 0;
+    }
+
+    /**
+     * Adds a new player with the given name and fleet, with no score and no ship hit
+     *
+     * @param name  Name of the player
+     * @param fleet The fleet chosen by the player
+     * @return int The position of the player
+     * @pre name != null && fleet != null && size() < capacity()
+     */
+    public int add(String name, AvailableFleet fleet) {
+        int words = (fleet.shipCount() + 63) >>> 6;
+        if (wordCount + words > sunkWords.length) { // doubles the hit state of every player
+            long[] aux = new long[Math.max(sunkWords.length * 2, wordCount + words)];
+            System.arraycopy(sunkWords, 0, aux, 0, wordCount);
+            sunkWords = aux;
+        }
+        if (shipCount + fleet.shipCount() > sinkTurns.length) {
+            int[] aux = new int[Math.max(sinkTurns.length * 2, shipCount + fleet.shipCount())];
+            System.arraycopy(sinkTurns, 0, aux, 0, shipCount);
+            sinkTurns = aux;
+            aux = new int[sinkTurns.length];
+            System.arraycopy(sinkOrder, 0, aux, 0, shipCount);
+            sinkOrder = aux;
+        }
+        names[size] = name;
+        fleets[size] = fleet;
+        sunkOffsets[size] = wordCount;
+        wordCount += words;
+        shipOffsets[size] = shipCount;
+        Arrays.fill(sinkTurns, shipCount, shipCount + fleet.shipCount(), NEVER);
+        shipCount += fleet.shipCount();
+        unsunkCells[size] = fleet.shipCells();
+        views[size] = new Player(this, size);
+        return size++;
+    }
+
+    /**
+     * This method returns the number of players added
+     *
+     * @return int Number of players
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method returns the number of players the store has room for
+     *
+     * @return int Number of players
+     */
+    public int capacity() {
+        return names.length;
+    }
+
+    /**
+     * This method returns the view of the player in the given position
+     *
+     * @param position int that represents the position of the player
+     * @return Player The player
+     * @pre position >= 0 && position < size()
+     */
+    public Player get(int position) {
+        return views[position];
+    }
+
+    /**
+     * This method returns the name of the player in the given position
+     *
+     * @param position int that represents the position of the player
+     * @return String The name of the player
+     * @pre position >= 0 && position < size()
+     */
+    public String name(int position) {
+        return names[position];
+    }
+
+    /**
+     * This method returns the score of the player in the given position
+     *
+     * @param position int that represents the position of the player
+     * @return int The score of the player
+     * @pre position >= 0 && position < size()
+     */
+    public int score(int position) {
+        return scores[position];
+    }
+
+    /**
+     * Adds the given value to the score of the player in the given position
+     *
+     * @param position int that represents the position of the player
+     * @param score    int that represents the score to add or subtract
+     * @pre position >= 0 && position < size()
+     */
+    public void updateScore(int position, int score) {
+        scores[position] += score;
+    }
+
+    /**
+     * Checks if the player in the given position has been eliminated
+     *
+     * @param position int that represents the position of the player
+     * @return boolean Whether the player has been eliminated
+     * @pre position >= 0 && position < size()
+     */
+    public boolean isEliminated(int position) {
+        return (eliminated[position >>> 6] & (1L << position)) != 0;
+    }
+
+    /**
+     * Eliminates the player in the given position
+     *
+     * @param position int that represents the position of the player
+     * @pre position >= 0 && position < size()
+     */
+    public void eliminate(int position) {
+        eliminated[position >>> 6] |= 1L << position;
+    }
+
+    /**
+     * Returns the first player between the given positions that has not been
+     * eliminated, skipping 64 eliminated players at a time
+     *
+     * @param from int that represents the first position to look at
+     * @param to   int that represents the position after the last one to look at
+     * @return int The position of the player, or NO_SURVIVOR if there is none
+     * @pre from >= 0 && to <= size()
+     */
+    public int nextSurvivor(int from, int to) {
+        int survivor = NO_SURVIVOR;
+        if (from < to) {
+            int w = from >>> 6;
+            long word = ~eliminated[w] & (-1L << from);
+            while (word == 0 && (++w << 6) < to)
+                word = ~eliminated[w];
+            if (word != 0 && (w << 6) + Long.numberOfTrailingZeros(word) < to)
+                survivor = (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+        return survivor;
+    }
+
+    /**
+     * This method returns the fleet of the player in the given position
+     *
+     * @param position int that represents the position of the player
+     * @return AvailableFleet The fleet chosen by the player
+     * @pre position >= 0 && position < size()
+     */
+    public AvailableFleet fleet(int position) {
+        return fleets[position];
+    }
+
+    /**
+     * Returns the highest score of the players, if it is positive
+     *
+     * @return int The highest score, or 0 if no score is positive
+     */
+    public int maxScore() {
+        int max = 0;
+        for (int i = 0; i < size; i++)
+            max = Math.max(max, scores[i]);
+        return max;
+    }
+
+    /**
+     * Returns the number of players with the given score
+     *
+     * @param score int that represents the score
+     * @return int Number of players with that score
+     */
+    public int countScore(int score) {
+        int count = 0;
+        for (int i = 0; i < size; i++)
+            if (scores[i] == score)
+                count++;
+        return count;
+    }
+
+    /**
+     * Returns the first player with the given score
+     *
+     * @param score int that represents the score
+     * @return int The position of the player, or -1 if no player has that score
+     */
+    public int firstWithScore(int score) {
+        int position = -1;
+        for (int i = 0; position < 0 && i < size; i++)
+            if (scores[i] == score)
+                position = i;
+        return position;
+    }
+
+    /**
+     * Takes a shot at the given position of the board of the player in the given
+     * position and returns the length of the ship that was hit, its negative length
+     * if it was already hit, or 0 if the position is empty
+     *
+     * @param position int that represents the position of the player
+     * @param row      int that represents the row of the shot, starting at 1
+     * @param col      int that represents the column of the shot, starting at 1
+     * @return int Length of the ship that was hit, or the negative length of the
+     *              ship that was already hit, or 0 if the position is empty
+     * @pre position >= 0 && position < size() && the shot is in the board
+     */
+    public int takeHit(int position, int row, int col) {
+        AvailableFleet fleet = fleets[position];
+        int length = 0;
+        if (fleet.isShip(--row, --col)) { // --row and --col because the board index's starts at 0
+            int ship = fleet.shipAt(row, col);
+            length = fleet.shipLength(ship);
+            if (isSunk(position, ship))
+                length = -length; // ship was already hit
+            else
+                sink(position, ship);
+        }
+        return length;
+    }
+
+    /**
+     * Takes the hits of a batch of shots at the player in the given position, in
+     * order, as takeHit does for each one
+     *
+     * @param position int that represents the position of the player
+     * @param rows     the rows of the shots
+     * @param cols     the columns of the shots
+     * @param count    int that represents the number of shots
+     * @param lengths  array where the result of each shot, as returned by takeHit, is written
+     * @pre position >= 0 && position < size() && rows, cols and lengths have at
+     *      least count elements && every shot is in the board
+     */
+    public void takeHits(int position, int[] rows, int[] cols, int count, int[] lengths) {
+        for (int i = 0; i < count; i++)
+            lengths[i] = takeHit(position, rows[i], cols[i]);
+    }
+
+    /**
+     * Marks the given ship of the player in the given position as hit
+     *
+     * @param position int that represents the position of the player
+     * @param ship     int that represents the id of the ship
+     * @pre position >= 0 && position < size() && !isSunk(position, ship)
+     */
+    private void sink(int position, int ship) {
+        AvailableFleet fleet = fleets[position];
+        sunkWords[sunkOffsets[position] + (ship >>> 6)] |= 1L << ship;
+        sinkTurns[shipOffsets[position] + ship] = turn;
+        sinkOrder[shipOffsets[position] + sinkCounts[position]++] = ship;
+        unsunkCells[position] -= fleet.shipLength(ship);
+        markShipDirty(position, ship);
+    }
+
+    /**
+     * This method returns the number of turns played so far
+     *
+     * @return int Number of turns
+     */
+    public int turn() {
+        return turn;
+    }
+
+    /**
+     * Sets the number of turns played so far, as saved by a snapshot
+     *
+     * @param turn int that represents the number of turns
+     * @pre turn >= 0 && no turn was played yet
+     */
+    public void restoreTurn(int turn) {
+        this.turn = turn;
+    }
+
+    /**
+     * Ends the current turn: the ships hit from now on are hit in the next one
+     */
+    public void endTurn() {
+        turn++;
+    }
+
+    /**
+     * Undoes the last turn, in which the player in the given position was shot at:
+     * every ship of that player hit in that turn is not hit anymore
+     *
+     * @param position int that represents the position of the player shot at in the last turn
+     * @pre turn() > 0 && position >= 0 && position < size()
+     */
+    public void undoTurn(int position) {
+        turn--;
+        AvailableFleet fleet = fleets[position];
+        int base = shipOffsets[position];
+        while (sinkCounts[position] > 0 && sinkTurns[base + sinkOrder[base + sinkCounts[position] - 1]] == turn) {
+            int ship = sinkOrder[base + --sinkCounts[position]];
+            sunkWords[sunkOffsets[position] + (ship >>> 6)] &= ~(1L << ship);
+            sinkTurns[base + ship] = NEVER;
+            unsunkCells[position] += fleet.shipLength(ship);
+            markShipDirty(position, ship);
+        }
+    }
+
+    /**
+     * Brings back the player in the given position, after undoing the turn that
+     * eliminated it
+     *
+     * @param position int that represents the position of the player
+     * @pre position >= 0 && position < size() && isEliminated(position)
+     */
+    public void revive(int position) {
+        eliminated[position >>> 6] &= ~(1L << position);
+    }
+
+    /**
+     * Checks if the given ship of the player in the given position was hit
+     *
+     * @param position int that represents the position of the player
+     * @param ship     int that represents the id of the ship
+     * @return boolean Whether the ship was hit
+     * @pre position >= 0 && position < size() && ship >= 0 && ship < fleet(position).shipCount()
+     */
+    private boolean isSunk(int position, int ship) {
+        return (sunkWords[sunkOffsets[position] + (ship >>> 6)] & (1L << ship)) != 0;
+    }
+
+    /**
+     * Checks if all the ships of the player in the given position have been sunk
+     *
+     * @param position int that represents the position of the player
+     * @return boolean Whether all the ships have been sunk
+     * @pre position >= 0 && position < size()
+     */
+    public boolean shipsSunk(int position) {
+        return unsunkCells[position] == 0;
+    }
+
+    /**
+     * Writes the hit state of the player in the given position to the given buffer,
+     * in a single bulk put
+     *
+     * @param position int that represents the position of the player
+     * @param out      The buffer where the words are written
+     * @pre position >= 0 && position < size() && out has room for the words of the player
+     */
+    public void writeSunkShips(int position, LongBuffer out) {
+        out.put(sunkWords, sunkOffsets[position], (fleets[position].shipCount() + 63) >>> 6);
+    }
+
+    /**
+     * Writes the turn in which each ship of the player in the given position was hit
+     * to the given buffer, one int per ship hit, in the order of the ships in the fleet
+     *
+     * @param position int that represents the position of the player
+     * @param out      The buffer where the turns are written
+     * @pre position >= 0 && position < size() && out has room for sunkCount(position) ints
+     */
+    public void writeSinkTurns(int position, IntBuffer out) {
+        int words = (fleets[position].shipCount() + 63) >>> 6;
+        for (int w = 0; w < words; w++)
+            for (long word = sunkWords[sunkOffsets[position] + w]; word != 0; word &= word - 1)
+                out.put(sinkTurns[shipOffsets[position] + (w << 6) + Long.numberOfTrailingZeros(word)]);
+    }
+
+    /**
+     * This method returns the number of ships of the player in the given position
+     * that were hit
+     *
+     * @param position int that represents the position of the player
+     * @return int Number of ships hit
+     * @pre position >= 0 && position < size()
+     */
+    public int sunkCount(int position) {
+        return sinkCounts[position];
+    }
+
+    /**
+     * Restores the hit state of the player in the given position, as written by
+     * writeSunkShips in a single bulk get, and the turn in which each ship was hit,
+     * as written by writeSinkTurns, so that the ships keep the order they were hit in.
+     * The board is rendered again on the next call to renderFleet.
+     *
+     * @param position int that represents the position of the player
+     * @param in       The buffer from which the words are read
+     * @param turns    The buffer from which the turns are read
+     * @pre position >= 0 && position < size() && in has the words of the player
+     *      && turns has the turns of the player && no ship was hit yet
+     */
+    public void restoreSunkShips(int position, LongBuffer in, IntBuffer turns) {
+        AvailableFleet fleet = fleets[position];
+        int base = shipOffsets[position];
+        int words = (fleet.shipCount() + 63) >>> 6;
+        in.get(sunkWords, sunkOffsets[position], words);
+        for (int w = 0; w < words; w++)
+            for (long word = sunkWords[sunkOffsets[position] + w]; word != 0; word &= word - 1) {
+                int ship = (w << 6) + Long.numberOfTrailingZeros(word);
+                unsunkCells[position] -= fleet.shipLength(ship);
+                sinkTurns[base + ship] = turns.get();
+                sinkOrder[base + sinkCounts[position]++] = ship;
+            }
+        // turn and ship of each ship hit, in one long, to put sinkOrder in the order of the turns
+        long[] keys = new long[sinkCounts[position]];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = (long) sinkTurns[base + sinkOrder[base + i]] << 32 | sinkOrder[base + i];
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++)
+            sinkOrder[base + i] = (int) keys[i];
+        rendered[position] = null;
+        dirtyRows[position] = null;
+    }
+
+    /**
+     * This method returns the board of the player in the given position rendered as
+     * text, each row followed by a new line.
+     * The rendering is kept between calls and only the rows changed since the last
+     * call are rendered again.
+     *
+     * @param position int that represents the position of the player
+     * @return byte[] The board, one byte per cell
+     * @pre position >= 0 && position < size()
+     */
+    public byte[] renderFleet(int position) {
+        AvailableFleet fleet = fleets[position];
+        if (rendered[position] == null) { // first call, every row must be rendered
+            rendered[position] = new byte[fleet.maxRow() * (fleet.maxCol() + 1)];
+            dirtyRows[position] = new long[(fleet.maxRow() + 63) >>> 6];
+            Arrays.fill(dirtyRows[position], -1L);
+        }
+        long[] dirtyWords = dirtyRows[position];
+        for (int w = 0; w < dirtyWords.length; w++) {
+            for (long dirty = dirtyWords[w]; dirty != 0; dirty &= dirty - 1) {
+                int row = (w << 6) + Long.numberOfTrailingZeros(dirty);
+                if (row < fleet.maxRow())
+                    renderRow(position, row, rendered[position], row * (fleet.maxCol() + 1), NEVER);
+            }
+            dirtyWords[w] = 0;
+        }
+        return rendered[position];
+    }
+
+    /**
+     * Returns the board of the player in the given position as it was after the
+     * given number of turns, rendered as renderFleet does, in a new array
+     *
+     * @param position int that represents the position of the player
+     * @param turn     int that represents the number of turns
+     * @return byte[] The board, one byte per cell
+     * @pre position >= 0 && position < size() && turn >= 0
+     */
+    public byte[] renderFleetAt(int position, int turn) {
+        AvailableFleet fleet = fleets[position];
+        byte[] board = new byte[fleet.maxRow() * (fleet.maxCol() + 1)];
+        for (int row = 0; row < fleet.maxRow(); row++)
+            renderRow(position, row, board, row * (fleet.maxCol() + 1), turn);
+        return board;
+    }
+
+    /**
+     * Returns the cells of the board of the player in the given position that were
+     * hit after the given number of turns, as spans of consecutive cells of a row,
+     * ordered by row and column. Every cell of a span is now HIT.
+     * Only the ships hit since then are gone through, found with a binary search
+     * in sinkOrder, so the cost depends on the cells that changed, not on the board.
+     *
+     * @param position int that represents the position of the player
+     * @param turn     int that represents the number of turns
+     * @return int[] The spans, each as its row, its first column and its length,
+     *               starting at 0
+     * @pre position >= 0 && position < size() && turn >= 0 && turn <= turn()
+     */
+    public int[] changedSince(int position, int turn) {
+        AvailableFleet fleet = fleets[position];
+        int base = shipOffsets[position];
+        int low = 0;
+        int high = sinkCounts[position];
+        while (low < high) { // first ship of sinkOrder hit in the given turn or after
+            int middle = (low + high) >>> 1;
+            if (sinkTurns[base + sinkOrder[base + middle]] < turn)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        int count = 0;
+        for (int i = low; i < sinkCounts[position]; i++) {
+            int ship = sinkOrder[base + i];
+            count += fleet.isVertical(ship) ? fleet.shipLength(ship) : 1;
+        }
+        // row, column and whether the span is a whole horizontal ship, in one long
+        long[] keys = new long[count];
+        count = 0;
+        for (int i = low; i < sinkCounts[position]; i++) {
+            int ship = sinkOrder[base + i];
+            long head = (long) fleet.shipRow(ship) << 32 | (long) fleet.shipCol(ship) << 1;
+            if (fleet.isVertical(ship))
+                for (int j = 0; j < fleet.shipLength(ship); j++)
+                    keys[count++] = head + ((long) j << 32);
+            else
+                keys[count++] = head | 1;
+        }
+        Arrays.sort(keys);
+
+        int[] spans = new int[3 * count];
+        int spanCount = 0;
+        for (int i = 0; i < count; i++) {
+            int row = (int) (keys[i] >>> 32);
+            int col = (int) keys[i] >>> 1;
+            int length = (keys[i] & 1) != 0 ? fleet.shipLength(fleet.shipAt(row, col)) : 1;
+            int last = 3 * (spanCount - 1);
+            if (spanCount > 0 && spans[last] == row && spans[last + 1] + spans[last + 2] == col)
+                spans[last + 2] += length; // continues the previous span
+            else {
+                spans[3 * spanCount] = row;
+                spans[3 * spanCount + 1] = col;
+                spans[3 * spanCount++ + 2] = length;
+            }
+        }
+        return Arrays.copyOf(spans, 3 * spanCount);
+    }
+
+    /**
+     * Writes the given row of the board of the player in the given position, as it
+     * was after the given number of turns, into the given array, followed by a new
+     * line, going through the occupied cells of the fleet one word of 64 cells at a time.
+     * The symbols of the fleet are ASCII, so each cell is one byte.
+     *
+     * @param position int that represents the position of the player
+     * @param row      int that represents the row to render
+     * @param out      array of bytes where the row is written
+     * @param offset   int that represents the position of the row in out
+     * @param turn     int that represents the number of turns, or NEVER for the current board
+     * @pre row >= 0 && row < fleet(position).maxRow() && out != null
+     */
+    private void renderRow(int position, int row, byte[] out, int offset, int turn) {
+        AvailableFleet fleet = fleets[position];
+        Arrays.fill(out, offset, offset + fleet.maxCol(), (byte) EMPTY);
+        out[offset + fleet.maxCol()] = NEWLINE;
+        for (int w = 0; w < fleet.wordsPerRow(); w++) {
+            int base = w << 6; // first column of the word
+            for (long occupied = fleet.shipWord(row, w); occupied != 0; occupied &= occupied - 1) {
+                int col = base + Long.numberOfTrailingZeros(occupied);
+                int ship = fleet.shipAt(row, col);
+                boolean hit = sinkTurns[shipOffsets[position] + ship] < turn;
+                out[offset + col] = (byte) (hit ? HIT : fleet.shipSymbol(ship));
+            }
+        }
+    }
+
+    /**
+     * Marks the rows of the given ship of the player in the given position to be
+     * rendered again in the next call to renderFleet
+     *
+     * @param position int that represents the position of the player
+     * @param ship     int that represents the id of the ship
+     * @pre position >= 0 && position < size() && ship >= 0 && ship < fleet(position).shipCount()
+     */
+    private void markShipDirty(int position, int ship) {
+        AvailableFleet fleet = fleets[position];
+        if (fleet.isVertical(ship))
+            for (int i = 0; i < fleet.shipLength(ship); i++)
+                markDirty(position, fleet.shipRow(ship) + i);
+        else
+            markDirty(position, fleet.shipRow(ship));
+    }
+
+    /**
+     * Marks the given row of the board of the player in the given position to be
+     * rendered again in the next call to renderFleet
+     *
+     * @param position int that represents the position of the player
+     * @param row      int that represents the row that changed
+     * @pre position >= 0 && position < size() && row >= 0 && row < fleet(position).maxRow()
+     */
+    private void markDirty(int position, int row) {
+        if (dirtyRows[position] != null) // nothing to do if the board was never rendered
+            dirtyRows[position][row >>> 6] |= 1L << row;
+    }
+}
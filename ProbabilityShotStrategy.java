@@ -0,0 +1,100 @@
+/**
+ * ProbabilityShotStrategy class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.util.SplittableRandom;
+
+/*
+ * Shoots at the cell where a ship is most likely to be. Each board has a Heatmap
+ * with the number of ways a ship not sunk yet could lie over each of its cells,
+ * given every shot fired at it so far, so a cell in a wide open area is preferred
+ * to one boxed in by misses. The lengths of the ships are those of the fleet of
+ * the player, as in a game where the fleets are known but not where their ships are.
+ * A miss makes its cell known, and the heatmap is updated from it instead of being
+ * weighed again from scratch. A hit sinks the whole ship, so every cell of the ship
+ * becomes known, found through the fleet of the target, and the ship no longer
+ * counts in the weights of the board.
+ * The target is the surviving player whose board has the heaviest cell. The
+ * heatmaps are kept from match to match and only reset.
+ */
+public class ProbabilityShotStrategy implements ShotStrategy {
+    // variables of ProbabilityShotStrategy Class
+    private Heatmap[] heatmaps; // heatmap of the board of each player
+    private int players;
+
+    /**
+     * Constructor for ProbabilityShotStrategy
+     * Creates a new ProbabilityShotStrategy, with no heatmap yet.
+     */
+    public ProbabilityShotStrategy() {
+        heatmaps = new Heatmap[0];
+    }
+
+    /**
+     * Starts a new match, with every cell of every board unknown
+     *
+     * @param game   the game of the match, with every player added
+     * @param random the source of randomness of the match
+     * @pre game != null && game.isFull() && random != null
+     */
+    @Override
+    public void startMatch(Game game, SplittableRandom random) {
+        players = game.getPlayerCount();
+        if (heatmaps.length < players) { // grows the array, keeping the heatmaps already made
+            Heatmap[] aux = new Heatmap[players];
+            System.arraycopy(heatmaps, 0, aux, 0, heatmaps.length);
+            for (int i = heatmaps.length; i < players; i++)
+                aux[i] = new Heatmap();
+            heatmaps = aux;
+        }
+        for (int i = 0; i < players; i++)
+            heatmaps[i].reset(game.getPlayerAt(i).getFleet());
+    }
+
+    /**
+     * Chooses the surviving player other than the current one whose board has the
+     * heaviest cell, and that cell
+     *
+     * @param game the game of the match
+     * @param shot array where the target, row and column of the shot are written
+     * @pre game != null && !game.isOver() && shot.length >= 3
+     */
+    @Override
+    public void aim(Game game, int[] shot) {
+        int shooter = game.getCurrentPosition();
+        int target = -1;
+        for (int i = 0; i < players; i++)
+            if (i != shooter && !game.getPlayerAt(i).isEliminated()
+                    && (target < 0 || heatmaps[i].maxWeight() > heatmaps[target].maxWeight()))
+                target = i;
+        int cell = heatmaps[target].heaviest();
+        shot[TARGET] = target;
+        shot[ROW] = cell / heatmaps[target].cols() + 1;
+        shot[COL] = cell % heatmaps[target].cols() + 1;
+    }
+
+    /**
+     * Makes the cell of the shot known in the heatmap of its target, or every cell
+     * of the ship it sank if it was a hit
+     *
+     * @param game   the game of the match, after the shot
+     * @param shot   the shot, as chosen by aim
+     * @param length int that represents the result of the shot
+     * @pre game != null && shot != null
+     */
+    @Override
+    public void result(Game game, int[] shot, int length) {
+        Heatmap heatmap = heatmaps[shot[TARGET]];
+        if (length > 0) { // a hit sinks the whole ship
+            AvailableFleet fleet = game.getPlayerAt(shot[TARGET]).getFleet();
+            int ship = fleet.shipAt(shot[ROW] - 1, shot[COL] - 1);
+            heatmap.sinkShip(fleet.shipRow(ship), fleet.shipCol(ship), length, fleet.isVertical(ship));
+        } else
+            heatmap.markKnown(shot[ROW] - 1, shot[COL] - 1);
+    }
+}
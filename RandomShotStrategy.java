@@ -0,0 +1,121 @@
+/**
+ * RandomShotStrategy class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.util.SplittableRandom;
+
+/*
+ * Shoots at a random surviving player, at a random cell of its board that nobody
+ * shot at yet. The cells of each board are drawn with an incremental Fisher-Yates
+ * shuffle over an array that is kept from match to match: drawing a cell swaps it
+ * past the end of the cells left, so the array is always a permutation of the cells
+ * and only needs to be filled again when the size of the board changes.
+ * Surviving players are kept in an array where an eliminated player is swapped
+ * with the last one, so a target is drawn in constant time however many players
+ * were eliminated.
+ */
+public class RandomShotStrategy implements ShotStrategy {
+    // variables of RandomShotStrategy Class
+    private int[][] cells; // cells of the board of each player, row * columns + column
+    private int[] cellsLeft; // the first cellsLeft[i] cells of cells[i] were not shot at yet
+    private int[] columns; // number of columns of the board of each player
+    private int[] survivors; // positions of the surviving players, the first survivorCount ones
+    private int[] survivorIndex; // index of each surviving player in survivors
+    private int survivorCount;
+    private SplittableRandom random;
+
+    /**
+     * Constructor for RandomShotStrategy
+     * Creates a new RandomShotStrategy, ready for its first match.
+     */
+    public RandomShotStrategy() {
+        cells = new int[0][];
+        cellsLeft = new int[0];
+        columns = new int[0];
+        survivors = new int[0];
+        survivorIndex = new int[0];
+    }
+
+    /**
+     * Starts a new match, with every cell of every board not shot at yet
+     *
+     * @param game   the game of the match, with every player added
+     * @param random the source of randomness of the match
+     * @pre game != null && game.isFull() && random != null
+     */
+    @Override
+    public void startMatch(Game game, SplittableRandom random) {
+        this.random = random;
+        int players = game.getPlayerCount();
+        if (cells.length < players) { // grows the arrays, keeping the boards already filled
+            int[][] aux = new int[players][];
+            System.arraycopy(cells, 0, aux, 0, cells.length);
+            cells = aux;
+            cellsLeft = new int[players];
+            columns = new int[players];
+            survivors = new int[players];
+            survivorIndex = new int[players];
+        }
+        survivorCount = players;
+        for (int i = 0; i < players; i++) {
+            Player player = game.getPlayerAt(i);
+            int size = player.maxRow() * player.maxCol();
+            if (cells[i] == null || cells[i].length != size) { // a board of another size
+                cells[i] = new int[size];
+                for (int j = 0; j < size; j++)
+                    cells[i][j] = j;
+            }
+            cellsLeft[i] = size;
+            columns[i] = player.maxCol();
+            survivors[i] = i;
+            survivorIndex[i] = i;
+        }
+    }
+
+    /**
+     * Chooses a random surviving player other than the current one, and a random
+     * cell of its board that nobody shot at yet
+     *
+     * @param game the game of the match
+     * @param shot array where the target, row and column of the shot are written
+     * @pre game != null && !game.isOver() && shot.length >= 3
+     */
+    @Override
+    public void aim(Game game, int[] shot) {
+        int pick = random.nextInt(survivorCount - 1); // any survivor but the shooter
+        if (pick >= survivorIndex[game.getCurrentPosition()])
+            pick++;
+        int target = survivors[pick];
+        int draw = random.nextInt(cellsLeft[target]);
+        int last = --cellsLeft[target];
+        int cell = cells[target][draw];
+        cells[target][draw] = cells[target][last];
+        cells[target][last] = cell;
+        shot[TARGET] = target;
+        shot[ROW] = cell / columns[target] + 1;
+        shot[COL] = cell % columns[target] + 1;
+    }
+
+    /**
+     * Removes the target of the shot from the survivors if the shot eliminated it
+     *
+     * @param game   the game of the match, after the shot
+     * @param shot   the shot, as chosen by aim
+     * @param length int that represents the result of the shot
+     * @pre game != null && shot != null
+     */
+    @Override
+    public void result(Game game, int[] shot, int length) {
+        int target = shot[TARGET];
+        if (game.getPlayerAt(target).isEliminated()) { // swaps the last survivor into its place
+            int last = survivors[--survivorCount];
+            survivors[survivorIndex[target]] = last;
+            survivorIndex[last] = survivorIndex[target];
+        }
+    }
+}
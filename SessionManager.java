@@ -0,0 +1,175 @@
+/**
+ * SessionManager class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Runs many games at once. Games are spread over a fixed number of shards, each
+ * one a single thread: game id % shards is the shard of the game and id / shards
+ * its slot in the shard. A game is only ever touched by the thread of its shard,
+ * so games need no locks and the input of each game is run in the order it arrived.
+ */
+public class SessionManager {
+    // constants of SessionManager Class
+    private static final int INITIAL_SESSIONS = 16;
+    private static final int CHUNK_SIZE = 4096; // bytes routed at a time by main
+    // variables of SessionManager Class
+    private final FleetCatalog fleets;
+    private final ExecutorService[] shards;
+    private final GameSession[][] sessions; // sessions[shard] is only used by the thread of the shard
+    private final AtomicInteger nextId;
+
+    /**
+     * Constructor for SessionManager
+     * Creates a new SessionManager with the given number of shards.
+     *
+     * @param fleets     the catalog of available fleets, shared by every game
+     * @param shardCount int that represents the number of threads that run the games
+     * @pre fleets != null && shardCount > 0
+     */
+    public SessionManager(FleetCatalog fleets, int shardCount) {
+        this.fleets = fleets;
+        shards = new ExecutorService[shardCount];
+        sessions = new GameSession[shardCount][];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = Executors.newSingleThreadExecutor();
+            sessions[i] = new GameSession[INITIAL_SESSIONS];
+        }
+        nextId = new AtomicInteger();
+    }
+
+    /**
+     * Opens a new game, whose output is written to the given stream.
+     * The game starts by reading its number of players, like a new run of Main.
+     *
+     * @param output the stream where the output of the game is written
+     * @return int The id of the game
+     * @pre output != null
+     */
+    public int open(OutputStream output) {
+        int id = nextId.getAndIncrement();
+        int shard = id % shards.length;
+        int slot = id / shards.length;
+        shards[shard].execute(() -> {
+            if (slot >= sessions[shard].length) // if the shard is full, doubles its size
+                sessions[shard] = Arrays.copyOf(sessions[shard], Math.max(slot + 1, sessions[shard].length * 2));
+            sessions[shard][slot] = new GameSession(fleets, new CommandReader(), new CommandWriter(output));
+        });
+        return id;
+    }
+
+    /**
+     * Routes the given input to the game with the given id and runs every command
+     * it completes, in the thread of the game.
+     * The bytes are copied, so the caller may reuse its buffer. A game that ends,
+     * after the quit command or invalid input, is released from its shard, and any
+     * input routed to it afterwards is dropped.
+     *
+     * @param id     int that represents the id of the game
+     * @param bytes  the input
+     * @param offset int that represents the position of the first byte
+     * @param length int that represents the number of bytes
+     * @pre id was returned by open && bytes != null && offset >= 0 && length >= 0
+     */
+    public void route(int id, byte[] bytes, int offset, int length) {
+        byte[] input = Arrays.copyOfRange(bytes, offset, offset + length);
+        int shard = id % shards.length;
+        int slot = id / shards.length;
+        shards[shard].execute(() -> {
+            GameSession session = sessions[shard][slot];
+            if (session != null)
+                try {
+                    session.feed(input, 0, input.length);
+                    session.runReadySteps();
+                    if (session.isFinished())
+                        sessions[shard][slot] = null;
+                } catch (RuntimeException e) { // invalid input ends the game, as it ends Main
+                    sessions[shard][slot] = null;
+                }
+        });
+    }
+
+    /**
+     * Closes the game with the given id, after the input already routed to it is run.
+     *
+     * @param id int that represents the id of the game
+     * @pre id was returned by open
+     */
+    public void close(int id) {
+        int shard = id % shards.length;
+        int slot = id / shards.length;
+        shards[shard].execute(() -> sessions[shard][slot] = null);
+    }
+
+    /**
+     * Checks if the game with the given id has ended, after the quit command.
+     * Waits for the input already routed to the game to be run.
+     *
+     * @param id int that represents the id of the game
+     * @return boolean Whether the game has ended or was closed
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @pre id was returned by open
+     */
+    public boolean isFinished(int id) throws InterruptedException {
+        int shard = id % shards.length;
+        int slot = id / shards.length;
+        try {
+            return shards[shard].submit(() -> sessions[shard][slot] == null || sessions[shard][slot].isFinished()).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Stops accepting input and waits for the input already routed to be run
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService shard : shards)
+            shard.shutdown();
+        for (ExecutorService shard : shards)
+            shard.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Replays the script read from the standard input in the given number of games
+     * at once, as if each game had its own Main, and prints how long it took.
+     * Usage: SessionManager [games] [shards]
+     *
+     * @param args the number of games and the number of shards, by default 1000 games
+     *             and one shard per processor
+     * @throws IOException if the script or the fleets can not be read
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int shardCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        byte[] script = System.in.readAllBytes();
+        SessionManager manager = new SessionManager(Main.openFleets(), shardCount);
+
+        long start = System.nanoTime();
+        int[] ids = new int[games];
+        for (int i = 0; i < games; i++)
+            ids[i] = manager.open(OutputStream.nullOutputStream());
+        for (int offset = 0; offset < script.length; offset += CHUNK_SIZE) // interleaves the games, chunk by chunk
+            for (int i = 0; i < games; i++)
+                manager.route(ids[i], script, offset, Math.min(CHUNK_SIZE, script.length - offset));
+        manager.shutdown();
+        long elapsed = System.nanoTime() - start;
+        System.out.println(games + " games in " + shardCount + " shards: " + elapsed / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * ShotStrategy interface for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.util.SplittableRandom;
+
+/*
+ * Chooses the shots of every player of a simulated game. A strategy keeps what it
+ * learns during a match, so each thread of the simulator has its own instance and
+ * reuses it from match to match.
+ */
+public interface ShotStrategy {
+    // positions of the fields of a shot
+    int TARGET = 0;
+    int ROW = 1;
+    int COL = 2;
+
+    /**
+     * Starts a new match, forgetting everything about the previous one
+     *
+     * @param game   the game of the match, with every player added
+     * @param random the source of randomness of the match
+     * @pre game != null && game.isFull() && random != null
+     */
+    void startMatch(Game game, SplittableRandom random);
+
+    /**
+     * Chooses the next shot of the current player of the game
+     *
+     * @param game the game of the match
+     * @param shot array where the position of the target and the 1-based row and
+     *             column of the shot are written, at TARGET, ROW and COL
+     * @pre game != null && !game.isOver() && shot.length >= 3
+     */
+    void aim(Game game, int[] shot);
+
+    /**
+     * Learns the result of the last shot chosen by aim
+     *
+     * @param game   the game of the match, after the shot
+     * @param shot   the shot, as chosen by aim
+     * @param length int that represents the result of the shot, as returned by Game.shootAt
+     * @pre game != null && shot != null
+     */
+    void result(Game game, int[] shot, int length);
+}
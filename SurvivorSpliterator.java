@@ -0,0 +1,112 @@
+/**
+ * SurvivorSpliterator class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/*
+ * Spliterator over the non-eliminated players of a range of positions of a
+ * PlayerStore, so the survivors can be streamed, and aggregated in parallel,
+ * without copying them. A split cuts the range in half at a multiple of 64, so
+ * each half walks its own words of the eliminations of the store.
+ */
+public class SurvivorSpliterator implements Spliterator<Player> {
+    // constants of SurvivorSpliterator Class
+    private static final int MIN_SPLIT = 1024; // positions, not worth splitting below
+    // variables of SurvivorSpliterator Class
+    private final PlayerStore players;
+    private int from; // first position not walked yet
+    private final int to; // position after the last one of the range
+
+    /**
+     * Constructor for SurvivorSpliterator
+     * Creates a new SurvivorSpliterator over the given range of positions of the given store.
+     *
+     * @param players The store of the players
+     * @param from    int that represents the first position of the range
+     * @param to      int that represents the position after the last one of the range
+     * @pre players != null && 0 <= from <= to <= players.size()
+     */
+    public SurvivorSpliterator(PlayerStore players, int from, int to) {
+        this.players = players;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Gives the next surviving player of the range to the given action
+     *
+     * @param action the action
+     * @return boolean Whether there was a surviving player left
+     * @pre action != null
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super Player> action) {
+        int next = players.nextSurvivor(from, to);
+        boolean found = next != PlayerStore.NO_SURVIVOR;
+        if (found) {
+            from = next + 1;
+            action.accept(players.get(next));
+        } else
+            from = to;
+        return found;
+    }
+
+    /**
+     * Gives every surviving player left in the range to the given action
+     *
+     * @param action the action
+     * @pre action != null
+     */
+    @Override
+    public void forEachRemaining(Consumer<? super Player> action) {
+        for (int next = players.nextSurvivor(from, to); next != PlayerStore.NO_SURVIVOR;
+                next = players.nextSurvivor(next + 1, to))
+            action.accept(players.get(next));
+        from = to;
+    }
+
+    /**
+     * Splits off the first half of the range, if it is large enough
+     *
+     * @return Spliterator The first half, or null if the range is not split
+     */
+    @Override
+    public Spliterator<Player> trySplit() {
+        Spliterator<Player> prefix = null;
+        int middle = ((from + to) >>> 1) & -64;
+        if (to - from >= MIN_SPLIT && middle > from) {
+            prefix = new SurvivorSpliterator(players, from, middle);
+            from = middle;
+        }
+        return prefix;
+    }
+
+    /**
+     * This method returns the number of positions left in the range, an upper
+     * bound of the surviving players left
+     *
+     * @return long The number of positions left
+     */
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    /**
+     * This method returns the characteristics of the spliterator: the players are
+     * ordered, distinct and never null
+     *
+     * @return int The characteristics
+     */
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL;
+    }
+}
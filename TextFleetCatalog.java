@@ -0,0 +1,229 @@
+/**
+ * TextFleetCatalog class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class TextFleetCatalog implements FleetCatalog {
+    // constants of TextFleetCatalog Class
+    private static final int INITIAL_FLEETS = 10;
+    private static final byte EMPTY = '.';
+    private static final String CROOKED_SHIP_MESSAGE = "%s: fleet %d has a ship at row %d, column %d that is not a straight line, so it can not be chosen%n";
+    // variables of TextFleetCatalog Class
+    private final MappedByteBuffer file;
+    private int[] offsets; // position of the first byte of each fleet in the file
+    private boolean[] rejected; // whether each fleet has a ship that is not a straight line
+    private int fleetCount;
+    private final AtomicReferenceArray<AvailableFleet> fleets; // fleets already built, null until chosen
+    private int[] rowStarts; // position of each row of the fleet being indexed
+
+    /**
+     * Constructor for TextFleetCatalog
+     * Maps the given text file of fleets into memory and indexes where each fleet
+     * starts, in a single pass, without building any of them.
+     * Each fleet is its number of rows and columns followed by one token per row.
+     * Every ship must be a straight line of its symbol that touches no other cell
+     * of the same symbol, as the ships of AvailableFleet are. A fleet with a ship
+     * that is not is reported on the standard error and keeps its index, but can
+     * not be chosen: there is no fleet with that index.
+     *
+     * @param fileName The name of the file of fleets
+     * @throws IOException if the file can not be read
+     * @pre fileName != null && the file is smaller than 2 GB
+     */
+    public TextFleetCatalog(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        offsets = new int[INITIAL_FLEETS];
+        rejected = new boolean[INITIAL_FLEETS];
+        fleetCount = 0;
+        rowStarts = new int[INITIAL_FLEETS];
+        indexFleets(fileName);
+        fleets = new AtomicReferenceArray<>(fleetCount);
+    }
+
+    /**
+     * This method returns the number of fleets in the catalog
+     *
+     * @return int Number of fleets
+     */
+    @Override
+    public int size() {
+        return fleetCount;
+    }
+
+    /**
+     * Returns the fleet with the given index, building it from the file the first
+     * time it is chosen.
+     * No lock is taken: threads that ask for a fleet not built yet may each build
+     * it, and the first one to publish it wins, so every caller gets the same fleet.
+     *
+     * @param index int that represents the index of the fleet, starting at 0
+     * @return AvailableFleet The fleet, or null if there is no fleet with that index
+     *                        or it was rejected
+     * @pre index >= 0
+     */
+    @Override
+    public AvailableFleet getFleet(int index) {
+        AvailableFleet fleet = null;
+        if (index < fleetCount) {
+            fleet = fleets.get(index);
+            if (fleet == null) {
+                fleets.compareAndSet(index, null, readFleet(index));
+                fleet = fleets.get(index);
+            }
+        }
+        return fleet;
+    }
+
+    /**
+     * Scans the whole file once, saving the position of each fleet and checking its
+     * ships as it skips its rows.
+     * The scan stops at the first token that is not a number of rows.
+     *
+     * @param fileName The name of the file of fleets, for the error message
+     * @pre file != null && offsets != null
+     */
+    private void indexFleets(String fileName) {
+        int position = skipWhitespace(0);
+        while (position < file.limit() && isDigit(file.get(position))) {
+            if (fleetCount == offsets.length) { // if the arrays are full, doubles their size
+                offsets = Arrays.copyOf(offsets, fleetCount * 2);
+                rejected = Arrays.copyOf(rejected, fleetCount * 2);
+            }
+            offsets[fleetCount++] = position;
+            int rows = intAt(position);
+            position = skipWhitespace(skipToken(position));
+            int cols = intAt(position);
+            position = skipToken(position);
+            if (rows > rowStarts.length)
+                rowStarts = new int[Math.max(rows, rowStarts.length * 2)];
+            for (int i = 0; i < rows; i++) {
+                position = skipWhitespace(position);
+                rowStarts[i] = position;
+                position = skipToken(position);
+            }
+            rejected[fleetCount - 1] = !checkShips(fileName, rows, cols);
+            position = skipWhitespace(position);
+        }
+    }
+
+    /**
+     * Checks that every ship of the fleet whose rows start in rowStarts is a straight
+     * line: no cell has a neighbour of the same symbol both in its row and in its
+     * column. A ship that is not would be hit by the shape of the cross around the
+     * shot, which the ships of AvailableFleet can not hold, so the first such cell
+     * is reported on the standard error.
+     *
+     * @param fileName The name of the file of fleets, for the error message
+     * @param rows     int that represents the number of rows of the fleet
+     * @param cols     int that represents the number of columns of the fleet
+     * @return boolean Whether every ship is a straight line
+     * @pre rowStarts holds the positions of the rows of the fleet
+     */
+    private boolean checkShips(String fileName, int rows, int cols) {
+        boolean straight = true;
+        for (int i = 0; straight && i < rows; i++)
+            for (int j = 0; straight && j < cols; j++) {
+                byte symbol = file.get(rowStarts[i] + j);
+                boolean horizontal = symbol != EMPTY && (j > 0 && file.get(rowStarts[i] + j - 1) == symbol
+                        || j + 1 < cols && file.get(rowStarts[i] + j + 1) == symbol);
+                straight = !horizontal || !(i > 0 && file.get(rowStarts[i - 1] + j) == symbol
+                        || i + 1 < rows && file.get(rowStarts[i + 1] + j) == symbol);
+                if (!straight)
+                    System.err.printf(CROOKED_SHIP_MESSAGE, fileName, fleetCount, i + 1, j + 1);
+            }
+        return straight;
+    }
+
+    /**
+     * Builds the fleet with the given index from the file, without keeping it.
+     * Used to go through every fleet without holding all of them in memory.
+     * Only reads the file with absolute gets, so it is safe to call from several
+     * threads at once.
+     *
+     * @param index int that represents the index of the fleet, starting at 0
+     * @return AvailableFleet The fleet, or null if it was rejected
+     * @pre index >= 0 && index < size()
+     */
+    public AvailableFleet readFleet(int index) {
+        AvailableFleet fleet = null;
+        if (!rejected[index]) {
+            int position = offsets[index];
+            int rows = intAt(position);
+            position = skipWhitespace(skipToken(position));
+            char[][] board = new char[rows][intAt(position)]; // the dimensions of the board
+            position = skipToken(position);
+            for (int i = 0; i < board.length; i++) {
+                position = skipWhitespace(position);
+                for (int j = 0; j < board[i].length; j++) // the symbols of the fleets are ASCII
+                    board[i][j] = (char) file.get(position + j);
+                position = skipToken(position);
+            }
+            fleet = new AvailableFleet(index, board);
+        }
+        return fleet;
+    }
+
+    /**
+     * Reads the digits in the given position of the file as a non-negative int
+     *
+     * @param position int that represents the position of the first digit
+     * @return int The value of the digits
+     * @pre file != null
+     */
+    private int intAt(int position) {
+        int value = 0;
+        while (position < file.limit() && isDigit(file.get(position)))
+            value = value * 10 + file.get(position++) - '0';
+        return value;
+    }
+
+    /**
+     * Skips the token in the given position of the file
+     *
+     * @param position int that represents the position of the token
+     * @return int The position after the token
+     * @pre file != null
+     */
+    private int skipToken(int position) {
+        while (position < file.limit() && !CommandReader.isWhitespace(file.get(position)))
+            position++;
+        return position;
+    }
+
+    /**
+     * Skips the whitespace in the given position of the file
+     *
+     * @param position int that represents the position of the whitespace
+     * @return int The position of the next token, or the end of the file
+     * @pre file != null
+     */
+    private int skipWhitespace(int position) {
+        while (position < file.limit() && CommandReader.isWhitespace(file.get(position)))
+            position++;
+        return position;
+    }
+
+    /**
+     * Checks if the given byte is a decimal digit
+     *
+     * @param b The byte to check
+     * @return boolean Whether the byte is a digit
+     */
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * TournamentSimulator class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/*
+ * Plays simulated matches to the end, without input or output, with every shot
+ * chosen by a ShotStrategy. The range of matches is split in halves with fork-join
+ * until each task has at most MATCHES_PER_TASK matches, which it plays one after
+ * the other with its own strategy, random source and stats, so the tasks share
+ * nothing but the immutable fleets and the names of the seats.
+ * Each match picks a random fleet for each seat from the given fleets.
+ */
+public class TournamentSimulator extends RecursiveTask<TournamentStats> {
+    // constants of TournamentSimulator Class
+    private static final int MATCHES_PER_TASK = 256;
+    private static final long SEED_MIX = 0x9E3779B97F4A7C15L; // spreads the seeds of the tasks
+    private static final long serialVersionUID = 1L;
+    private static final long DEFAULT_SEED = 42;
+    private static final String RANDOM_STRATEGY = "random";
+    private static final String PROBABILITY_STRATEGY = "probability";
+    // variables of TournamentSimulator Class
+    private final AvailableFleet[] fleets; // fleets the seats choose from
+    private final String[] names; // names of the seats, shared by every match
+    private final Supplier<ShotStrategy> strategies;
+    private final long seed;
+    private final long from; // first match of the task
+    private final long to; // match after the last one of the task
+
+    /**
+     * Constructor for TournamentSimulator
+     * Creates a new task that plays the matches from from (inclusive) to to (exclusive).
+     *
+     * @param fleets     the fleets the seats choose from
+     * @param players    int that represents the number of players of each match
+     * @param strategies creates the strategy of each task
+     * @param seed       long that represents the seed of the simulation
+     * @param from       long that represents the first match
+     * @param to         long that represents the match after the last one
+     * @pre fleets.length > 0 && players > 1 && strategies != null && from <= to
+     */
+    public TournamentSimulator(AvailableFleet[] fleets, int players, Supplier<ShotStrategy> strategies, long seed,
+            long from, long to) {
+        this(fleets, seatNames(players), strategies, seed, from, to);
+    }
+
+    /**
+     * Constructor for TournamentSimulator
+     * Creates a new task over the same fleets and seats as its parent.
+     *
+     * @param fleets     the fleets the seats choose from
+     * @param names      the names of the seats
+     * @param strategies creates the strategy of each task
+     * @param seed       long that represents the seed of the simulation
+     * @param from       long that represents the first match
+     * @param to         long that represents the match after the last one
+     * @pre fleets.length > 0 && names.length > 1 && strategies != null && from <= to
+     */
+    private TournamentSimulator(AvailableFleet[] fleets, String[] names, Supplier<ShotStrategy> strategies,
+            long seed, long from, long to) {
+        this.fleets = fleets;
+        this.names = names;
+        this.strategies = strategies;
+        this.seed = seed;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Plays the matches of the task, splitting them in halves while there are too
+     * many for a single task
+     *
+     * @return TournamentStats The stats of the matches
+     */
+    @Override
+    protected TournamentStats compute() {
+        if (to - from <= MATCHES_PER_TASK)
+            return playAll();
+        long middle = (from + to) >>> 1;
+        TournamentSimulator left = new TournamentSimulator(fleets, names, strategies, seed, from, middle);
+        left.fork();
+        TournamentStats stats = new TournamentSimulator(fleets, names, strategies, seed, middle, to).compute();
+        stats.merge(left.join());
+        return stats;
+    }
+
+    /**
+     * Plays every match of the task, one after the other
+     *
+     * @return TournamentStats The stats of the matches
+     */
+    private TournamentStats playAll() {
+        ShotStrategy strategy = strategies.get();
+        SplittableRandom random = new SplittableRandom(seed + from * SEED_MIX);
+        TournamentStats stats = new TournamentStats(fleets.length, names.length);
+        int[] chosen = new int[names.length]; // fleet of each seat
+        int[] shot = new int[3];
+        for (long match = from; match < to; match++) {
+            Game game = new Game(names.length);
+            for (int i = 0; i < names.length; i++) {
+                chosen[i] = random.nextInt(fleets.length);
+                game.addPlayer(names[i], fleets[chosen[i]]);
+            }
+            game.setCurrentPlayer();
+            strategy.startMatch(game, random);
+            int shots = 0;
+            while (!game.isOver()) {
+                strategy.aim(game, shot);
+                int length = game.shootAt(shot[ShotStrategy.ROW], shot[ShotStrategy.COL], shot[ShotStrategy.TARGET]);
+                strategy.result(game, shot, length);
+                shots++;
+            }
+            stats.record(game, chosen, winner(game), shots);
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the seat of the winner of the given game: the player with the highest
+     * score or, if more than one player has it, the last survivor.
+     * Same rule as Game.getWinnerName, also when no score is positive, which happens
+     * with fleets without ships.
+     *
+     * @param game the game
+     * @return int The seat of the winner
+     * @pre game != null && game.isOver()
+     */
+    private static int winner(Game game) {
+        int best = 0;
+        int ties = 0;
+        for (int i = 1; i < game.getPlayerCount(); i++) {
+            int score = game.getPlayerAt(i).getScore();
+            if (score > game.getPlayerAt(best).getScore()) {
+                best = i;
+                ties = 0;
+            } else if (score == game.getPlayerAt(best).getScore())
+                ties++;
+        }
+        return ties == 0 ? best : game.getCurrentPosition(); // the current player is the last survivor
+    }
+
+    /**
+     * Returns the names of the given number of seats
+     *
+     * @param players int that represents the number of seats
+     * @return String[] The names of the seats
+     * @pre players > 0
+     */
+    private static String[] seatNames(int players) {
+        String[] names = new String[players];
+        for (int i = 0; i < players; i++)
+            names[i] = "Player" + (i + 1);
+        return names;
+    }
+
+    /**
+     * Returns what creates the strategy with the given name
+     *
+     * @param name the name of the strategy
+     * @return Supplier The supplier of new instances of the strategy
+     * @throws IllegalArgumentException if there is no strategy with that name
+     * @pre name != null
+     */
+    public static Supplier<ShotStrategy> strategy(String name) {
+        return switch (name) {
+            case RANDOM_STRATEGY -> RandomShotStrategy::new;
+            case PROBABILITY_STRATEGY -> ProbabilityShotStrategy::new;
+            default -> throw new IllegalArgumentException("Unknown strategy: " + name);
+        };
+    }
+
+    /**
+     * Simulates the given number of matches over every core and prints their stats.
+     * Usage: TournamentSimulator [matches] [players] [strategy] [fleet ...]
+     *
+     * @param args the number of matches (100000 by default), of players (2 by default),
+     *             the strategy ("random" by default, or "probability") and the
+     *             1-based indexes of the fleets to choose from (every fleet of the
+     *             catalog by default), skipping the fleets the catalog rejected
+     * @throws IOException if the fleets can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        long matches = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        Supplier<ShotStrategy> strategies = strategy(args.length > 2 ? args[2] : RANDOM_STRATEGY);
+        FleetCatalog catalog = Main.openFleets();
+        int[] fleetIds = new int[args.length > 3 ? args.length - 3 : catalog.size()];
+        AvailableFleet[] fleets = new AvailableFleet[fleetIds.length];
+        int fleetCount = 0;
+        for (int i = 0; i < fleetIds.length; i++) {
+            int id = args.length > 3 ? Integer.parseInt(args[3 + i]) - 1 : i;
+            AvailableFleet fleet = catalog.getFleet(id);
+            if (fleet != null) { // the catalog already reported the fleets it rejected
+                fleetIds[fleetCount] = id;
+                fleets[fleetCount++] = fleet;
+            }
+        }
+        fleetIds = Arrays.copyOf(fleetIds, fleetCount);
+        fleets = Arrays.copyOf(fleets, fleetCount);
+
+        long start = System.nanoTime();
+        TournamentStats stats = ForkJoinPool.commonPool()
+                .invoke(new TournamentSimulator(fleets, players, strategies, DEFAULT_SEED, 0, matches));
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%d matches in %d ms on %d threads%n", stats.matches(), elapsed / 1_000_000,
+                ForkJoinPool.commonPool().getParallelism());
+        stats.print(System.out, fleetIds);
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * TournamentStats class for the Project 2 - Battleship game.
+ *
+ * @author Ruben Nogueira 68536 - 1º LEI
+ * @author Alexandre Carvalho 67950 - 1º LEI
+ *
+ */
+
+// imports
+import java.io.PrintStream;
+import java.util.Locale;
+
+/*
+ * Aggregate results of simulated matches, by fleet and by seat (position in the
+ * game). Each task of the simulator fills its own stats and they are merged when
+ * the tasks are joined, so recording a match needs no synchronization.
+ */
+public class TournamentStats {
+    // variables of TournamentStats Class
+    private final long[] winsByFleet;
+    private final long[] scoreByFleet; // sum of the final scores of the players with each fleet
+    private final long[] playersByFleet; // number of players that had each fleet
+    private final long[] winsBySeat;
+    private long matches;
+    private long shots;
+    private long longestMatch; // shots of the longest match
+
+    /**
+     * Constructor for TournamentStats
+     * Creates new empty TournamentStats.
+     *
+     * @param fleets  int that represents the number of fleets that can be chosen
+     * @param players int that represents the number of players of each match
+     * @pre fleets > 0 && players > 1
+     */
+    public TournamentStats(int fleets, int players) {
+        winsByFleet = new long[fleets];
+        scoreByFleet = new long[fleets];
+        playersByFleet = new long[fleets];
+        winsBySeat = new long[players];
+    }
+
+    /**
+     * Records a finished match
+     *
+     * @param game   the game of the match
+     * @param fleets the fleet chosen by each seat, as indexes in the list of fleets
+     * @param winner int that represents the seat of the winner
+     * @param shots  int that represents the number of shots of the match
+     * @pre game != null && game.isOver() && fleets.length >= game.getPlayerCount()
+     */
+    public void record(Game game, int[] fleets, int winner, int shots) {
+        for (int i = 0; i < game.getPlayerCount(); i++) {
+            scoreByFleet[fleets[i]] += game.getPlayerAt(i).getScore();
+            playersByFleet[fleets[i]]++;
+        }
+        winsByFleet[fleets[winner]]++;
+        winsBySeat[winner]++;
+        matches++;
+        this.shots += shots;
+        longestMatch = Math.max(longestMatch, shots);
+    }
+
+    /**
+     * Adds the given stats to these ones
+     *
+     * @param other the stats to add
+     * @pre other != null && other has the same number of fleets and seats
+     */
+    public void merge(TournamentStats other) {
+        for (int i = 0; i < winsByFleet.length; i++) {
+            winsByFleet[i] += other.winsByFleet[i];
+            scoreByFleet[i] += other.scoreByFleet[i];
+            playersByFleet[i] += other.playersByFleet[i];
+        }
+        for (int i = 0; i < winsBySeat.length; i++)
+            winsBySeat[i] += other.winsBySeat[i];
+        matches += other.matches;
+        shots += other.shots;
+        longestMatch = Math.max(longestMatch, other.longestMatch);
+    }
+
+    /**
+     * This method returns the number of matches recorded
+     *
+     * @return long Number of matches
+     */
+    public long matches() {
+        return matches;
+    }
+
+    /**
+     * Prints the stats: for each fleet the share of the matches it won, over the
+     * share it would win by chance, and the mean final score of its players; then
+     * the share of wins of each seat and the length of the matches
+     *
+     * @param out      the stream where the stats are printed
+     * @param fleetIds the catalog index of each fleet
+     * @pre out != null && fleetIds.length == number of fleets
+     */
+    public void print(PrintStream out, int[] fleetIds) {
+        out.printf(Locale.ROOT, "%8s %10s %10s %12s%n", "fleet", "win %", "win/fair", "mean score");
+        for (int i = 0; i < winsByFleet.length; i++)
+            if (playersByFleet[i] > 0) {
+                double wins = 100.0 * winsByFleet[i] / matches;
+                double fair = 100.0 * playersByFleet[i] / (matches * winsBySeat.length); // its share of seats
+                out.printf(Locale.ROOT, "%8d %10.2f %10.3f %12.1f%n", fleetIds[i] + 1, wins, wins / fair,
+                        (double) scoreByFleet[i] / playersByFleet[i]);
+            }
+        out.printf(Locale.ROOT, "%8s %10s%n", "seat", "win %");
+        for (int i = 0; i < winsBySeat.length; i++)
+            out.printf(Locale.ROOT, "%8d %10.2f%n", i + 1, 100.0 * winsBySeat[i] / matches);
+        out.printf(Locale.ROOT, "shots per match: %.1f mean, %d max%n", (double) shots / matches, longestMatch);
+    }
+}